@@ -0,0 +1,150 @@
+package com.devopsapi.devops;
+
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.WebSocketMessage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds DELTA WebSocket clients. Changes are collected for a short window and then sent as one
+ * BATCH message holding, per deployment id, only the fields that differ from what was last sent.
+ */
+@Component
+public class DeploymentUpdateCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(DeploymentUpdateCoalescer.class);
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {};
+
+    private final DeploymentWebSocketHandler deploymentWebSocketHandler;
+    private final long windowMs;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Map<String, Object>> pending = new ConcurrentHashMap<>();
+    private final Set<Long> pendingDeletes = ConcurrentHashMap.newKeySet();
+    // Last state sent to DELTA clients, the baseline the next diff is computed against
+    private final Map<Long, Map<String, Object>> lastSent = new HashMap<>();
+    private long sequence;
+
+    private ScheduledExecutorService flusher;
+
+    public DeploymentUpdateCoalescer(DeploymentWebSocketHandler deploymentWebSocketHandler,
+                                     @Value("${devops.ws.coalesce-window-ms:100}") long windowMs) {
+        this.deploymentWebSocketHandler = deploymentWebSocketHandler;
+        this.windowMs = windowMs;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        // A local Deployment yields Long ids, a JSON-decoded one small Integers; diffs must see them as equal
+        this.objectMapper.configure(DeserializationFeature.USE_LONG_FOR_INTS, true);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+    }
+
+    public void submit(Deployment deployment) {
+        submit(deployment.getId(), deployment);
+    }
+
+    /** {@code state} is a deployment, or its JSON-decoded map when it came from another node. */
+    public void submit(Long id, Object state) {
+        // Nobody to diff for; the baseline stays older, so later deltas are a safe superset
+        if (id == null || !deploymentWebSocketHandler.hasSessions(DeploymentWebSocketHandler.StreamMode.DELTA)) return;
+        Map<String, Object> snapshot = snapshot(state);
+        pendingDeletes.remove(id);
+        pending.put(id, snapshot);
+    }
+
+    // The field map diffs are computed on; the same for a deployment and its JSON-decoded copy
+    Map<String, Object> snapshot(Object state) {
+        return objectMapper.convertValue(state, FIELDS);
+    }
+
+    public void submitDelete(Long id) {
+        pending.remove(id);
+        pendingDeletes.add(id);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Error flushing coalesced deployment updates: {}", e.getMessage());
+        }
+    }
+
+    private void flush() throws Exception {
+        if (pending.isEmpty() && pendingDeletes.isEmpty()) return;
+
+        List<Map<String, Object>> updates = new ArrayList<>();
+        for (Long id : List.copyOf(pending.keySet())) {
+            Map<String, Object> snapshot = pending.remove(id);
+            if (snapshot == null) continue;
+            Map<String, Object> delta = diff(lastSent.get(id), snapshot);
+            lastSent.put(id, snapshot);
+            if (!delta.isEmpty()) {
+                delta.put("id", id);
+                updates.add(delta);
+            }
+        }
+
+        List<Long> deleted = new ArrayList<>();
+        for (Long id : List.copyOf(pendingDeletes)) {
+            pendingDeletes.remove(id);
+            lastSent.remove(id);
+            deleted.add(id);
+        }
+
+        if (updates.isEmpty() && deleted.isEmpty()) return;
+
+        Map<String, Object> batch = new LinkedHashMap<>();
+        batch.put("seq", ++sequence);
+        batch.put("updates", updates);
+        batch.put("deleted", deleted);
+        deploymentWebSocketHandler.sendMessage(new WebSocketMessage("BATCH", batch), DeploymentWebSocketHandler.StreamMode.DELTA);
+    }
+
+    private static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        if (previous == null) return new LinkedHashMap<>(current);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        current.forEach((field, value) -> {
+            if (!Objects.equals(previous.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        return changed;
+    }
+}
@@ -1,36 +1,90 @@
 package com.devopsapi.devops;
 
 import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentEvent;
+import com.devopsapi.devops.model.DispatchOutbox;
 import com.devopsapi.devops.model.WebSocketMessage;
+import com.devopsapi.devops.service.ClusterMembership;
+import com.devopsapi.devops.service.DeploymentEventBus;
+import com.devopsapi.devops.util.LogSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @Controller
 public class DeploymentWebSocketController {
 
+    private static final Logger log = LoggerFactory.getLogger(DeploymentWebSocketController.class);
+    private static final LogSampler UPDATE_LOG = new LogSampler(Duration.ofSeconds(10));
+
     private final DeploymentWebSocketHandler deploymentWebSocketHandler;
+    private final DeploymentUpdateCoalescer deploymentUpdateCoalescer;
+    private final DeploymentEventBus eventBus;
+    private final ClusterMembership cluster;
 
-    public DeploymentWebSocketController(DeploymentWebSocketHandler deploymentWebSocketHandler) {
+    public DeploymentWebSocketController(DeploymentWebSocketHandler deploymentWebSocketHandler,
+                                         DeploymentUpdateCoalescer deploymentUpdateCoalescer,
+                                         DeploymentEventBus eventBus,
+                                         ClusterMembership cluster) {
         this.deploymentWebSocketHandler = deploymentWebSocketHandler;
+        this.deploymentUpdateCoalescer = deploymentUpdateCoalescer;
+        this.eventBus = eventBus;
+        this.cluster = cluster;
+        // Every node, this one included, sends what comes off the bus to its own sessions
+        this.eventBus.subscribe(this::deliver);
     }
 
     public void notifyDeploymentUpdate(Deployment deployment) {
-        System.out.println("Sending deployment update via raw WebSocket: " + deployment);
-        try {
-            WebSocketMessage message = new WebSocketMessage("UPDATE", deployment);
-            deploymentWebSocketHandler.sendMessage(message);
-        } catch (IOException e) {
-            System.err.println("Error sending WebSocket message: " + e.getMessage());
+        // Fires for every change; sampled so a storm of updates cannot flood the log
+        if (log.isDebugEnabled()) {
+            long dropped = UPDATE_LOG.sample();
+            if (dropped >= 0) {
+                log.debug("Sending deployment update {} ({}, health {}; {} similar suppressed)",
+                        deployment.getId(), deployment.getStatus(), deployment.getHealthStatus(), dropped);
+            }
         }
+        publish("UPDATE", deployment.getId(), deployment);
     }
 
     public void notifyDeploymentDelete(Long id) {
-        System.out.println("Sending deployment deletion via raw WebSocket: " + id);
+        log.debug("Sending deployment deletion: {}", id);
+        publish("DELETE", id, id);
+    }
+
+    public void notifyDispatchState(DispatchOutbox entry) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("deploymentId", entry.getDeploymentId());
+        payload.put("state", entry.getState());
+        payload.put("attempts", entry.getAttempts());
+        payload.put("nextAttemptAt", entry.getNextAttemptAt());
+        payload.put("error", entry.getLastError());
+        publish("DISPATCH", entry.getDeploymentId(), payload);
+    }
+
+    private void publish(String type, Long deploymentId, Object payload) {
+        eventBus.publish(new DeploymentEvent(UUID.randomUUID().toString(), cluster.getNodeId(), type, deploymentId, payload));
+    }
+
+    private void deliver(DeploymentEvent event) {
         try {
-            WebSocketMessage message = new WebSocketMessage("DELETE", id);
-            deploymentWebSocketHandler.sendMessage(message);
+            switch (event.getType()) {
+                case "UPDATE" -> {
+                    deploymentUpdateCoalescer.submit(event.getDeploymentId(), event.getPayload());
+                    deploymentWebSocketHandler.sendMessage(new WebSocketMessage("UPDATE", event.getPayload()), DeploymentWebSocketHandler.StreamMode.FULL);
+                }
+                case "DELETE" -> {
+                    deploymentUpdateCoalescer.submitDelete(event.getDeploymentId());
+                    deploymentWebSocketHandler.sendMessage(new WebSocketMessage("DELETE", event.getPayload()), DeploymentWebSocketHandler.StreamMode.FULL);
+                }
+                default -> deploymentWebSocketHandler.sendMessage(new WebSocketMessage(event.getType(), event.getPayload()));
+            }
         } catch (IOException e) {
-            System.err.println("Error sending WebSocket message: " + e.getMessage());
+            log.warn("Error sending WebSocket message: {}", e.getMessage());
         }
     }
 }
@@ -2,54 +2,234 @@ package com.devopsapi.devops;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule; // Import JavaTimeModule
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class DeploymentWebSocketHandler extends TextWebSocketHandler {
 
-    private final Set<WebSocketSession> sessions = Collections.synchronizedSet(new HashSet<>());
+    private static final Logger log = LoggerFactory.getLogger(DeploymentWebSocketHandler.class);
+
+    /**
+     * FULL clients receive every change as a complete UPDATE/DELETE message.
+     * DELTA clients (connected with {@code ?mode=delta}) receive coalesced BATCH messages.
+     */
+    public enum StreamMode {
+        FULL,
+        DELTA
+    }
+
+    private static final String MODE_ATTRIBUTE = "streamMode";
+
+    // Each session gets one send lane so its messages go out in order without blocking the broadcaster
+    private final Map<String, SendLane> sessions = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper; // Make it non-final or initialize in constructor
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int sendTimeLimitMs;
+    private final int bufferSizeLimit;
+    private final AtomicLong evictedSessions = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final Timer sendTimer;
 
-    public DeploymentWebSocketHandler() { // Constructor to initialize ObjectMapper
+    public DeploymentWebSocketHandler(@Value("${devops.ws.send-time-limit-ms:5000}") int sendTimeLimitMs,
+                                      @Value("${devops.ws.buffer-size-limit:524288}") int bufferSizeLimit,
+                                      MeterRegistry meterRegistry) { // Constructor to initialize ObjectMapper
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule()); // Register JavaTimeModule
         this.objectMapper.configure(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false); // Write dates as ISO-8601 strings
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.meterRegistry = meterRegistry;
+        for (StreamMode mode : StreamMode.values()) {
+            Gauge.builder("websocket.sessions", sessions, all -> all.values().stream().filter(lane -> modeOf(lane.session) == mode).count())
+                    .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        this.sendTimer = Timer.builder("websocket.send").description("Time to write one message to one session").register(meterRegistry);
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
-        System.out.println("WebSocket session established: " + session.getId());
+        session.getAttributes().put(MODE_ATTRIBUTE, requestedMode(session));
+        // The decorator guards the raw session against concurrent writes; the lane enforces the limits
+        sessions.put(session.getId(), new SendLane(new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE)));
+        log.debug("WebSocket session established: {} ({})", session.getId(), modeOf(session));
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session);
-        System.out.println("WebSocket session closed: " + session.getId() + " with status: " + status);
+        sessions.remove(session.getId());
+        log.debug("WebSocket session closed: {} with status: {}", session.getId(), status);
     }
 
+    /**
+     * Serializes the message once and hands it to every session without waiting for network I/O.
+     * Each session receives messages in the order they were passed here.
+     */
     public void sendMessage(Object message) throws IOException {
-        String jsonMessage = objectMapper.writeValueAsString(message);
-        for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                session.sendMessage(new TextMessage(jsonMessage));
+        sendMessage(message, null);
+    }
+
+    /**
+     * Like {@link #sendMessage(Object)}, but only to sessions in the given mode.
+     */
+    public void sendMessage(Object message, StreamMode mode) throws IOException {
+        long started = System.nanoTime();
+        TextMessage textMessage = null;
+        for (SendLane lane : sessions.values()) {
+            if (lane.session.isOpen() && (mode == null || modeOf(lane.session) == mode)) {
+                if (textMessage == null) {
+                    textMessage = new TextMessage(objectMapper.writeValueAsString(message));
+                }
+                lane.offer(textMessage);
             }
         }
+        // Serialization plus hand-off to every session; the writes themselves are in websocket.send
+        if (textMessage != null) {
+            meterRegistry.timer("websocket.broadcast", "mode", mode == null ? "all" : mode.name().toLowerCase(Locale.ROOT))
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public boolean hasSessions(StreamMode mode) {
+        for (SendLane lane : sessions.values()) {
+            if (modeOf(lane.session) == mode) return true;
+        }
+        return false;
+    }
+
+    private static StreamMode requestedMode(WebSocketSession session) {
+        if (session.getUri() == null) return StreamMode.FULL;
+        String mode = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("mode");
+        return "delta".equalsIgnoreCase(mode) ? StreamMode.DELTA : StreamMode.FULL;
+    }
+
+    private static StreamMode modeOf(WebSocketSession session) {
+        Object mode = session.getAttributes().get(MODE_ATTRIBUTE);
+        return mode instanceof StreamMode streamMode ? streamMode : StreamMode.FULL;
+    }
+
+    /**
+     * Per-session FIFO drained by at most one virtual thread at a time, so a slow client only
+     * delays itself. A client is evicted once its backlog exceeds the buffer limit or its
+     * current write has been stuck longer than the send-time limit.
+     */
+    private final class SendLane {
+        private final ConcurrentWebSocketSessionDecorator session;
+        private final Queue<TextMessage> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt;
+
+        SendLane(ConcurrentWebSocketSessionDecorator session) {
+            this.session = session;
+        }
+
+        void offer(TextMessage message) {
+            if (pendingBytes.addAndGet(message.getPayloadLength()) > bufferSizeLimit) {
+                evict("send buffer limit exceeded");
+                return;
+            }
+            long started = sendStartedAt;
+            if (started != 0 && System.currentTimeMillis() - started > sendTimeLimitMs) {
+                evict("send time limit exceeded");
+                return;
+            }
+            pending.add(message);
+            if (draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                TextMessage message;
+                while ((message = pending.poll()) != null) {
+                    pendingBytes.addAndGet(-message.getPayloadLength());
+                    if (!send(message)) return;
+                }
+                draining.set(false);
+                // A message offered after the last poll but before the flag cleared still needs a drainer
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean send(TextMessage message) {
+            long started = System.nanoTime();
+            sendStartedAt = System.currentTimeMillis();
+            try {
+                session.sendMessage(message);
+                sendTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (Exception e) {
+                evict(e.getMessage());
+                return false;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        private void evict(String reason) {
+            if (sessions.remove(session.getId(), this)) {
+                evictedSessions.incrementAndGet();
+                log.warn("Evicting WebSocket session {}: {}", session.getId(), reason);
+                pending.clear();
+                closeQuietly(session);
+            }
+        }
+    }
+
+    private void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("deltaSessions", sessions.values().stream().filter(lane -> modeOf(lane.session) == StreamMode.DELTA).count());
+        stats.put("evictedSessions", evictedSessions.get());
+        stats.put("bufferedBytes", sessions.values().stream().mapToLong(lane -> lane.pendingBytes.get()).sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         // We are not expecting messages from the client in this scenario,
         // but you could handle them here if needed.
-        System.out.println("Received message from client: " + message.getPayload());
+        log.debug("Received message from client: {}", message.getPayload());
     }
 }
@@ -1,7 +1,13 @@
 package com.devopsapi.devops.config;
 
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.RepositoryKey;
 import com.devopsapi.devops.model.User;
+import com.devopsapi.devops.repository.DeploymentRepository;
 import com.devopsapi.devops.repository.UserRepository;
+import com.devopsapi.devops.security.CustomUserDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,23 +15,29 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.HashSet;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
 @Configuration
 public class DatabaseSeeder {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSeeder.class);
+
     @Bean
-    CommandLineRunner initDatabase(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    CommandLineRunner initDatabase(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                   CustomUserDetailsService userDetailsService) {
         return args -> {
             userRepository.findByUsername("smit").ifPresentOrElse(
                 user -> {
-                    System.out.println("Updating 'smit' user password and roles...");
+                    log.info("Updating 'smit' user password and roles...");
                     user.setPassword(passwordEncoder.encode("Admin123!"));
                     user.getRoles().add("ROLE_ADMIN");
                     user.getRoles().add("ROLE_USER");
                     userRepository.save(user);
+                    userDetailsService.evict(user.getUsername());
                 },
                 () -> {
-                    System.out.println("Creating default admin 'smit'...");
+                    log.info("Creating default admin 'smit'...");
                     User admin = new User("smit", passwordEncoder.encode("Admin123!"));
                     admin.getRoles().add("ROLE_ADMIN");
                     admin.getRoles().add("ROLE_USER");
@@ -34,4 +46,18 @@ public class DatabaseSeeder {
             );
         };
     }
+
+    @Bean
+    CommandLineRunner backfillRepositoryKeys(DeploymentRepository deploymentRepository) {
+        return args -> {
+            List<Deployment> stale = deploymentRepository.findRepositoryKeyBackfillCandidates().stream()
+                    .filter(deployment -> !Objects.equals(deployment.getRepositoryKey(), RepositoryKey.of(deployment.getRepositoryUrl())))
+                    .toList();
+            if (!stale.isEmpty()) {
+                log.info("Backfilling repository keys for {} deployments...", stale.size());
+                stale.forEach(Deployment::syncRepositoryKey);
+                deploymentRepository.saveAll(stale);
+            }
+        };
+    }
 }
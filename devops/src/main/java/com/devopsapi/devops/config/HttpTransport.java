@@ -0,0 +1,131 @@
+package com.devopsapi.devops.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One JDK {@link HttpClient} shared by every outbound caller, so GitHub calls and health probes
+ * reuse pooled HTTP/2 (or keep-alive HTTP/1.1) connections instead of paying for TCP and TLS
+ * setup on each request. Callers get a {@link RestTemplate} with their own read timeout and
+ * per-client request stats.
+ */
+@Component
+public class HttpTransport {
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ClientStats> clients = new ConcurrentHashMap<>();
+    private final int poolSize;
+    private final long keepAliveSeconds;
+
+    public HttpTransport(@Value("${devops.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                         @Value("${devops.http.pool-size:64}") int poolSize,
+                         @Value("${devops.http.keep-alive-seconds:60}") long keepAliveSeconds) {
+        // The JDK pool is only configurable through system properties, read when the first client is built
+        System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(poolSize));
+        System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(keepAliveSeconds));
+        this.poolSize = poolSize;
+        this.keepAliveSeconds = keepAliveSeconds;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /** A RestTemplate on the shared client; {@code name} labels its stats. */
+    public RestTemplate restTemplate(String name, Duration readTimeout) {
+        return new RestTemplate(requestFactory(name, readTimeout));
+    }
+
+    public ClientHttpRequestFactory requestFactory(String name, Duration readTimeout) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(readTimeout);
+        // Stats sit next to the wire, inside any interceptors the caller adds to its RestTemplate
+        ClientStats stats = clients.computeIfAbsent(name, key -> new ClientStats());
+        return new InterceptingClientHttpRequestFactory(factory, List.of(stats));
+    }
+
+    private static final class ClientStats implements ClientHttpRequestInterceptor {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong serverErrors = new AtomicLong();
+        final AtomicLong totalLatencyMicros = new AtomicLong();
+        final AtomicLong maxLatencyMicros = new AtomicLong();
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+            long started = System.nanoTime();
+            inFlight.incrementAndGet();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (response.getStatusCode().is5xxServerError()) serverErrors.incrementAndGet();
+                return response;
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                throw e;
+            } finally {
+                inFlight.decrementAndGet();
+                requests.incrementAndGet();
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+                totalLatencyMicros.addAndGet(micros);
+                maxLatencyMicros.accumulateAndGet(micros, Math::max);
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            long count = requests.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", count);
+            stats.put("inFlight", inFlight.get());
+            stats.put("failures", failures.get());
+            stats.put("serverErrors", serverErrors.get());
+            stats.put("avgLatencyMs", count == 0 ? 0 : totalLatencyMicros.get() / count / 1000.0);
+            stats.put("maxLatencyMs", maxLatencyMicros.get() / 1000.0);
+            return stats;
+        }
+    }
+
+    /** Pool settings plus per-client counters; latency is time to response headers. */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("protocol", httpClient.version().name());
+        stats.put("poolSize", poolSize);
+        stats.put("keepAliveSeconds", keepAliveSeconds);
+        stats.put("inFlight", clients.values().stream().mapToInt(client -> client.inFlight.get()).sum());
+        Map<String, Object> perClient = new LinkedHashMap<>();
+        clients.forEach((name, client) -> perClient.put(name, client.snapshot()));
+        stats.put("clients", perClient);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,54 @@
+package com.devopsapi.devops.config;
+
+import com.devopsapi.devops.service.DeploymentWriteBehind;
+import com.devopsapi.devops.service.GitHubRequestScheduler;
+import com.devopsapi.devops.service.GitHubResponseCache;
+import com.devopsapi.devops.service.RunPollScheduler;
+import com.devopsapi.devops.service.WebhookIngestionService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Exposes the counters the services already keep for the admin endpoints as Micrometer
+ * gauges and counters, read at scrape time so the hot paths pay nothing extra.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder serviceStatsMetrics(WebhookIngestionService webhookIngestionService,
+                                    DeploymentWriteBehind writeBehind,
+                                    RunPollScheduler runPollScheduler,
+                                    GitHubRequestScheduler gitHubRequestScheduler,
+                                    GitHubResponseCache gitHubResponseCache) {
+        return registry -> {
+            gauge(registry, "webhook.queue.depth", webhookIngestionService::getStats, "queueDepth");
+            gauge(registry, "webhook.batch.lag", webhookIngestionService::getStats, "lastBatchLagMs");
+            gauge(registry, "deployment.writes.pending", writeBehind::getStats, "pending");
+            gauge(registry, "github.poll.tracked", runPollScheduler::getStats, "tracked");
+            gauge(registry, "github.rate.remaining", gitHubRequestScheduler::getStats, "remaining");
+            gauge(registry, "github.cache.entries", gitHubResponseCache::getStats, "entries");
+            FunctionCounter.builder("github.cache.lookups", gitHubResponseCache, cache -> number(cache.getStats(), "hits"))
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("github.cache.lookups", gitHubResponseCache, cache -> number(cache.getStats(), "misses"))
+                    .tag("result", "miss").register(registry);
+        };
+    }
+
+    private static void gauge(MeterRegistry registry, String name,
+                              Supplier<Map<String, Object>> stats, String key) {
+        // The supplier is a lambda nobody else holds, so the gauge must keep it alive itself
+        Gauge.builder(name, stats, supplier -> number(supplier.get(), key)).strongReference(true).register(registry);
+    }
+
+    private static double number(Map<String, Object> stats, String key) {
+        return stats.get(key) instanceof Number value ? value.doubleValue() : Double.NaN;
+    }
+}
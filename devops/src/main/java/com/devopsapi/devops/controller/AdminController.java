@@ -0,0 +1,125 @@
+package com.devopsapi.devops.controller;
+
+import ch.qos.logback.classic.Level;
+import com.devopsapi.devops.DeploymentWebSocketHandler;
+import com.devopsapi.devops.config.HttpTransport;
+import com.devopsapi.devops.service.ClusterMembership;
+import com.devopsapi.devops.service.DeploymentEventBus;
+import com.devopsapi.devops.service.DeploymentWriteBehind;
+import com.devopsapi.devops.service.GitHubRequestScheduler;
+import com.devopsapi.devops.service.GitHubResponseCache;
+import com.devopsapi.devops.service.HealthCheckService;
+import com.devopsapi.devops.service.RunPollScheduler;
+import com.devopsapi.devops.service.WebhookDeliveryTracker;
+import com.devopsapi.devops.service.WebhookIngestionService;
+import com.devopsapi.devops.util.RingBufferAppender;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private HealthCheckService healthCheckService;
+
+    @Autowired
+    private WebhookIngestionService webhookIngestionService;
+
+    @Autowired
+    private DeploymentWebSocketHandler deploymentWebSocketHandler;
+
+    @Autowired
+    private GitHubResponseCache gitHubResponseCache;
+
+    @Autowired
+    private GitHubRequestScheduler gitHubRequestScheduler;
+
+    @Autowired
+    private RunPollScheduler runPollScheduler;
+
+    @Autowired
+    private HttpTransport httpTransport;
+
+    @Autowired
+    private DeploymentWriteBehind deploymentWriteBehind;
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    @Autowired
+    private DeploymentEventBus deploymentEventBus;
+
+    @Autowired
+    private WebhookDeliveryTracker webhookDeliveryTracker;
+
+    @GetMapping("/health/sweep")
+    public Map<String, Object> getLastHealthSweep() {
+        return healthCheckService.getLastSweep();
+    }
+
+    @GetMapping("/webhooks/queue")
+    public Map<String, Object> getWebhookQueueStats() {
+        return webhookIngestionService.getStats();
+    }
+
+    @GetMapping("/websocket")
+    public Map<String, Object> getWebSocketStats() {
+        return deploymentWebSocketHandler.getStats();
+    }
+
+    @GetMapping("/github/cache")
+    public Map<String, Object> getGitHubCacheStats() {
+        return gitHubResponseCache.getStats();
+    }
+
+    @GetMapping("/github/rate-limit")
+    public Map<String, Object> getGitHubRateLimit() {
+        return gitHubRequestScheduler.getStats();
+    }
+
+    @GetMapping("/github/polling")
+    public Map<String, Object> getRunPollingStats() {
+        return runPollScheduler.getStats();
+    }
+
+    @GetMapping("/http")
+    public Map<String, Object> getHttpTransportStats() {
+        return httpTransport.getStats();
+    }
+
+    @GetMapping("/writes")
+    public Map<String, Object> getWriteBehindStats() {
+        return deploymentWriteBehind.getStats();
+    }
+
+    @GetMapping("/cluster")
+    public Map<String, Object> getClusterMembership() {
+        return clusterMembership.getStats();
+    }
+
+    @GetMapping("/events")
+    public Map<String, Object> getEventBusStats() {
+        return deploymentEventBus.getStats();
+    }
+
+    @GetMapping("/webhooks/deliveries")
+    public Map<String, Object> getWebhookDeliveryStats() {
+        return webhookDeliveryTracker.getStats();
+    }
+
+    /** Newest in-memory log events at or above {@code level}, newest first. */
+    @GetMapping("/logs")
+    public List<RingBufferAppender.LogEntry> getRecentLogs(@RequestParam(defaultValue = "200") int limit,
+                                                           @RequestParam(defaultValue = "INFO") String level) {
+        RingBufferAppender appender = RingBufferAppender.current();
+        if (appender == null) return List.of();
+        return appender.recent(Math.max(0, Math.min(limit, 2000)), Level.toLevel(level, Level.INFO));
+    }
+}
@@ -5,6 +5,7 @@ import com.devopsapi.devops.model.ChangePasswordRequest;
 import com.devopsapi.devops.model.LoginRequest;
 import com.devopsapi.devops.model.User;
 import com.devopsapi.devops.repository.UserRepository;
+import com.devopsapi.devops.security.CustomUserDetailsService;
 import com.devopsapi.devops.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -14,7 +15,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,7 +30,7 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private UserRepository userRepository;
@@ -115,6 +115,7 @@ public class AuthController {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        userDetailsService.evict(username);
 
         return ResponseEntity.ok(Collections.singletonMap("message", "Password changed successfully"));
     }
@@ -1,17 +1,34 @@
 package com.devopsapi.devops.controller;
 
 import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentCursor;
+import com.devopsapi.devops.model.DeploymentPage;
+import com.devopsapi.devops.model.DeploymentSummary;
+import com.devopsapi.devops.model.RepositoryKey;
 import com.devopsapi.devops.repository.DeploymentRepository;
 import com.devopsapi.devops.DeploymentWebSocketController; // Import the WebSocket controller
+import com.devopsapi.devops.service.ClusterMembership;
+import com.devopsapi.devops.service.DeploymentWriteBehind;
 import com.devopsapi.devops.service.GitHubService;
+import com.devopsapi.devops.service.HealthHistoryStore;
+import com.devopsapi.devops.service.WorkflowDispatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/deployments")
@@ -26,6 +43,28 @@ public class DeploymentController {
     @Autowired
     private GitHubService gitHubService;
 
+    @Autowired
+    private WorkflowDispatchService workflowDispatchService;
+
+    @Autowired
+    private HealthHistoryStore healthHistoryStore;
+
+    @Autowired
+    private ClusterMembership cluster;
+
+    @Autowired
+    private DeploymentWriteBehind writeBehind;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_HISTORY_SAMPLES = 100;
+
     @GetMapping("/branches")
     public List<String> getBranches(@RequestParam String repoUrl) {
         return gitHubService.getBranches(repoUrl);
@@ -43,25 +82,105 @@ public class DeploymentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * History is kept in memory on the node that probes the deployment's service URL. Other
+     * nodes answer with whatever they hold (usually nothing); {@code local} says whether this
+     * node is the owner, and {@code ownerNode} names the one that has the full history.
+     */
+    @GetMapping("/{id}/health/history")
+    public ResponseEntity<Map<String, Object>> getHealthHistory(@PathVariable Long id,
+                                                                @RequestParam(required = false) Integer limit) {
+        return deploymentRepository.findById(id)
+                .map(deployment -> {
+                    int samples = limit == null ? DEFAULT_HISTORY_SAMPLES : Math.max(0, limit);
+                    Map<String, Object> history = healthHistoryStore.snapshot(id, samples);
+                    String serviceUrl = deployment.getServiceUrl();
+                    String owner = serviceUrl != null && !serviceUrl.isEmpty() ? cluster.ownerOf(serviceUrl) : null;
+                    history.put("node", cluster.getNodeId());
+                    history.put("ownerNode", owner);
+                    history.put("local", cluster.getNodeId().equals(owner));
+                    return ResponseEntity.ok(history);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Without parameters this returns every deployment as a plain array, as it always has.
+     * With {@code limit}, {@code cursor} or any filter it returns one newest-first page of
+     * summaries plus a {@code nextCursor} to pass back for the following page.
+     */
     @GetMapping
-    public List<Deployment> getAllDeployments() {
-        return deploymentRepository.findAll();
+    public ResponseEntity<?> getAllDeployments(@RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Deployment.DeploymentStatus status,
+                                               @RequestParam(required = false) Deployment.HealthStatus health,
+                                               @RequestParam(required = false) String repository,
+                                               @RequestParam(required = false) String branch) {
+        if (limit == null && cursor == null && status == null && health == null && repository == null && branch == null) {
+            return ResponseEntity.ok(deploymentRepository.findAll());
+        }
+
+        DeploymentCursor after;
+        try {
+            after = cursor != null ? DeploymentCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+
+        int pageSize = Math.min(Math.max(limit != null ? limit : DEFAULT_PAGE_SIZE, 1), MAX_PAGE_SIZE);
+        // Accept either a repository URL or a bare owner/repo
+        String repositoryKey = repository == null ? null
+                : repository.contains("github.com") ? RepositoryKey.of(repository) : repository.toLowerCase(Locale.ROOT);
+        if (repository != null && repositoryKey == null) {
+            // Dropping the filter would silently return every repository's deployments
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Not a GitHub repository URL: " + repository));
+        }
+
+        // One extra row tells us whether another page exists without a count query
+        List<DeploymentSummary> rows = deploymentRepository.findSummaries(status, health, repositoryKey, branch, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<DeploymentSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? DeploymentCursor.after(items.get(items.size() - 1)).encode() : null;
+        return ResponseEntity.ok(new DeploymentPage(items, nextCursor));
+    }
+
+    /**
+     * Streams the full history as newline-delimited JSON without holding it in memory.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportDeployments() {
+        StreamingResponseBody body = out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<DeploymentSummary> summaries = deploymentRepository.streamAllSummaries()) {
+                    summaries.forEach(summary -> {
+                        try {
+                            out.write(objectMapper.writeValueAsBytes(summary));
+                            out.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
     }
 
     @PostMapping
     public ResponseEntity<Deployment> createDeployment(@RequestBody Deployment deployment) {
-        Deployment savedDeployment = deploymentRepository.save(deployment);
+        // Saves the deployment and its dispatch intent together; the GitHub Action is triggered in the background
+        Deployment savedDeployment = workflowDispatchService.createDeployment(deployment);
         deploymentWebSocketController.notifyDeploymentUpdate(savedDeployment); // Notify WebSocket clients
-        
-        // Trigger GitHub Action
-        gitHubService.triggerWorkflow(savedDeployment);
-        
+
         return new ResponseEntity<>(savedDeployment, HttpStatus.CREATED);
     }
 
     @DeleteMapping
     public ResponseEntity<Void> deleteAllDeployments() {
         deploymentRepository.deleteAll();
+        healthHistoryStore.clear();
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -69,6 +188,7 @@ public class DeploymentController {
     public ResponseEntity<Void> deleteDeployment(@PathVariable Long id) {
         if (deploymentRepository.existsById(id)) {
             deploymentRepository.deleteById(id);
+            healthHistoryStore.remove(id);
             deploymentWebSocketController.notifyDeploymentDelete(id);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
@@ -80,10 +200,12 @@ public class DeploymentController {
     public ResponseEntity<Deployment> updateDeploymentStatus(@PathVariable Long id, @RequestParam Deployment.DeploymentStatus status) {
         return deploymentRepository.findById(id)
                 .map(deployment -> {
+                    // Through the write-behind buffer, so a pending webhook or poll write cannot revert it;
+                    // clients are notified when it is flushed
+                    writeBehind.overlay(List.of(deployment));
                     deployment.setStatus(status);
-                    Deployment updatedDeployment = deploymentRepository.save(deployment);
-                    deploymentWebSocketController.notifyDeploymentUpdate(updatedDeployment);
-                    return new ResponseEntity<>(updatedDeployment, HttpStatus.OK);
+                    writeBehind.submit(deployment, DeploymentWriteBehind.Field.STATUS);
+                    return new ResponseEntity<>(deployment, HttpStatus.OK);
                 })
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -1,7 +1,6 @@
 package com.devopsapi.devops.controller;
 
-import com.devopsapi.devops.model.AppSetting;
-import com.devopsapi.devops.repository.AppSettingRepository;
+import com.devopsapi.devops.service.SettingsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,19 +13,19 @@ import java.util.Map;
 public class SettingsController {
 
     @Autowired
-    private AppSettingRepository appSettingRepository;
+    private SettingsService settingsService;
 
     @GetMapping
     public ResponseEntity<Map<String, String>> getSettings() {
         Map<String, String> settings = new HashMap<>();
         
         // Return existing keys with masked values
-        appSettingRepository.findAll().forEach(setting -> {
-            String masked = setting.getValue();
-            if (setting.getKey().contains("TOKEN") || setting.getKey().contains("SECRET")) {
-                masked = (setting.getValue() != null && !setting.getValue().isEmpty()) ? "********" : "";
+        settingsService.getAll().forEach((key, value) -> {
+            String masked = value;
+            if (key.contains("TOKEN") || key.contains("SECRET")) {
+                masked = !value.isEmpty() ? "********" : "";
             }
-            settings.put(setting.getKey(), masked);
+            settings.put(key, masked);
         });
 
         // Ensure keys exist in response even if not in DB yet
@@ -42,9 +41,7 @@ public class SettingsController {
         newSettings.forEach((key, value) -> {
             // Only update if value is provided and not masked
             if (value != null && !value.isEmpty() && !"********".equals(value)) {
-                AppSetting setting = appSettingRepository.findById(key).orElse(new AppSetting(key, ""));
-                setting.setValue(value);
-                appSettingRepository.save(setting);
+                settingsService.put(key, value);
             }
         });
         return ResponseEntity.ok().build();
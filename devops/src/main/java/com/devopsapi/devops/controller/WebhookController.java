@@ -1,123 +1,138 @@
 package com.devopsapi.devops.controller;
 
-import com.devopsapi.devops.model.Deployment;
-import com.devopsapi.devops.repository.DeploymentRepository;
-import com.devopsapi.devops.DeploymentWebSocketController;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.devopsapi.devops.service.SettingsService;
+import com.devopsapi.devops.service.WebhookDeliveryTracker;
+import com.devopsapi.devops.service.WebhookIngestionService;
+import com.devopsapi.devops.util.LogSampler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.HexFormat;
-import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/webhooks")
 public class WebhookController {
 
+    private static final Logger log = LoggerFactory.getLogger(WebhookController.class);
+    private static final LogSampler SIGNATURE_LOG = new LogSampler(Duration.ofSeconds(10));
+    private static final LogSampler QUEUE_FULL_LOG = new LogSampler(Duration.ofSeconds(10));
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private record KeyedMac(String secret, Mac mac) {}
+
+    private static final ThreadLocal<KeyedMac> MACS = new ThreadLocal<>();
+
     @Autowired
-    private DeploymentRepository deploymentRepository;
+    private SettingsService settingsService;
 
     @Autowired
-    private com.devopsapi.devops.repository.AppSettingRepository appSettingRepository;
+    private WebhookIngestionService webhookIngestionService;
 
     @Autowired
-    private DeploymentWebSocketController webSocketController;
+    private WebhookDeliveryTracker deliveryTracker;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @PostMapping("/github")
-    public ResponseEntity<Void> handleGithubWebhook(@RequestBody String payload, 
+    public ResponseEntity<Void> handleGithubWebhook(@RequestBody byte[] payload,
                                                    @RequestHeader("X-GitHub-Event") String eventType,
-                                                   @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature) {
-        
-        System.out.println("Received Webhook: " + eventType);
-        
+                                                   @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+                                                   @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId) {
+        log.debug("Received webhook: {} (delivery {})", eventType, deliveryId);
+
         // Validate signature if secret is configured
         String secret = getWebhookSecret();
         if (secret != null && !secret.isEmpty()) {
-            System.out.println("Validating signature...");
-            if (signature == null || !isValidSignature(payload, signature, secret)) {
-                System.err.println("INVALID WEBHOOK SIGNATURE. Received: " + signature);
+            Timer.Sample verification = Timer.start(meterRegistry);
+            boolean valid = signature != null && isValidSignature(payload, signature, secret);
+            verification.stop(meterRegistry.timer("webhook.verify", "result", valid ? "valid" : "invalid"));
+            if (!valid) {
+                countDelivery(eventType, "invalid_signature");
+                long dropped = SIGNATURE_LOG.sample();
+                if (dropped >= 0) {
+                    log.warn("Invalid webhook signature for delivery {} ({} similar suppressed)", deliveryId, dropped);
+                }
                 return ResponseEntity.status(401).build();
             }
-            System.out.println("Signature Validated.");
         } else {
-            System.out.println("No secret configured, skipping validation.");
+            log.debug("No webhook secret configured, skipping signature validation");
         }
 
         if ("ping".equals(eventType)) {
+            countDelivery(eventType, "accepted");
             return ResponseEntity.ok().build();
         }
 
         if ("workflow_run".equals(eventType)) {
-            try {
-                JsonNode root = objectMapper.readTree(payload);
-                String repoUrl = root.path("repository").path("html_url").asText();
-                JsonNode workflowRun = root.path("workflow_run");
-                String status = workflowRun.path("status").asText();
-                String conclusion = workflowRun.path("conclusion").asText();
-                Long runId = workflowRun.path("id").asLong();
-
-                // Find and update ALL active deployments for this repository
-                deploymentRepository.findAll().stream()
-                        .filter(d -> d.getRepositoryUrl() != null && 
-                                    d.getRepositoryUrl().replaceAll("/$", "").equalsIgnoreCase(repoUrl.replaceAll("/$", "")))
-                        .forEach(deployment -> {
-                            if (runId != 0) {
-                                deployment.setWorkflowRunId(runId);
-                            }
-                            updateStatus(deployment, status, conclusion);
-                        });
-
-            } catch (Exception e) {
-                System.err.println("ERROR: Webhook processing failed: " + e.getMessage());
+            // Redeliveries (GitHub retries, manual replays) were handled the first time
+            if (deliveryId != null && !deliveryTracker.markIfNew(deliveryId)) {
+                log.debug("Skipping duplicate webhook delivery {}", deliveryId);
+                countDelivery(eventType, "duplicate");
+                return ResponseEntity.ok().build();
             }
+            // Processing happens on the ingestion worker; GitHub only waits for the enqueue
+            if (!webhookIngestionService.enqueue(payload, deliveryId)) {
+                if (deliveryId != null) deliveryTracker.unmark(deliveryId);
+                long dropped = QUEUE_FULL_LOG.sample();
+                if (dropped >= 0) {
+                    log.warn("Webhook queue full, asking GitHub to retry ({} similar suppressed)", dropped);
+                }
+                countDelivery(eventType, "rejected");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
+            }
+            countDelivery(eventType, "accepted");
+            return ResponseEntity.accepted().build();
         }
 
+        countDelivery(eventType, "ignored");
         return ResponseEntity.ok().build();
     }
 
-    private void updateStatus(Deployment deployment, String githubStatus, String conclusion) {
-        Deployment.DeploymentStatus newStatus;
-
-        if ("completed".equals(githubStatus)) {
-            newStatus = "success".equals(conclusion) ? 
-                        Deployment.DeploymentStatus.COMPLETED : 
-                        Deployment.DeploymentStatus.FAILED;
-        } else if ("in_progress".equals(githubStatus)) {
-            newStatus = Deployment.DeploymentStatus.IN_PROGRESS;
-        } else {
-            newStatus = Deployment.DeploymentStatus.PENDING;
-        }
-
-        deployment.setStatus(newStatus);
-        Deployment saved = deploymentRepository.save(deployment);
-        webSocketController.notifyDeploymentUpdate(saved);
+    // Event names come from an unbounded header; only the ones we handle get their own tag
+    private void countDelivery(String eventType, String outcome) {
+        String event = "workflow_run".equals(eventType) || "ping".equals(eventType) ? eventType : "other";
+        meterRegistry.counter("webhook.deliveries", "event", event, "outcome", outcome).increment();
     }
 
     private String getWebhookSecret() {
-        return appSettingRepository.findById("WEBHOOK_SECRET")
-                .map(com.devopsapi.devops.model.AppSetting::getValue)
-                .filter(s -> !s.isEmpty())
-                .orElse(null);
+        return settingsService.get("WEBHOOK_SECRET").orElse(null);
     }
 
-    private boolean isValidSignature(String payload, String signature, String secret) {
+    // The HMAC is computed over the exact bytes GitHub signed, with a constant-time comparison
+    static boolean isValidSignature(byte[] payload, String signature, String secret) {
+        if (!signature.regionMatches(true, 0, SIGNATURE_PREFIX, 0, SIGNATURE_PREFIX.length())) return false;
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(secretKeySpec);
-            byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String expected = "sha256=" + HexFormat.of().formatHex(hash);
-            return expected.equalsIgnoreCase(signature);
+            byte[] provided = HexFormat.of().parseHex(signature, SIGNATURE_PREFIX.length(), signature.length());
+            byte[] expected = macFor(secret).doFinal(payload);
+            return MessageDigest.isEqual(expected, provided);
         } catch (Exception e) {
             return false;
         }
     }
+
+    // Mac instances are not thread-safe but are costly to create; keep one per thread, rekeyed if the secret changes
+    private static Mac macFor(String secret) throws GeneralSecurityException {
+        KeyedMac cached = MACS.get();
+        if (cached == null || !cached.secret().equals(secret)) {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            cached = new KeyedMac(secret, mac);
+            MACS.set(cached);
+        }
+        return cached.mac();
+    }
 }
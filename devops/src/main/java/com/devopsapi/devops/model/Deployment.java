@@ -5,11 +5,21 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_deployment_status", columnList = "status"),
+        @Index(name = "idx_deployment_service_url", columnList = "serviceUrl"),
+        @Index(name = "idx_deployment_repository_key", columnList = "repositoryKey"),
+        @Index(name = "idx_deployment_created_at_id", columnList = "createdAt, id")
+})
 public class Deployment {
 
     @Id
@@ -19,8 +29,10 @@ public class Deployment {
     private String name;
     private String description;
     private String repositoryUrl;
+    private String repositoryKey; // lowercase owner/repo derived from repositoryUrl
     private String branch;
     private String serviceUrl;
+    private String workflowFile; // e.g. "deploy.yml"; null dispatches the repository's first workflow
     private Long workflowRunId;
     private DeploymentStatus status;
     private HealthStatus healthStatus = HealthStatus.UNKNOWN;
@@ -49,15 +61,26 @@ public class Deployment {
     public Deployment() {
     }
 
+    public Deployment(String name, String description, String repositoryUrl, String branch, DeploymentStatus status) {
+        this(name, description, repositoryUrl, branch, null, status);
+    }
+
     public Deployment(String name, String description, String repositoryUrl, String branch, String serviceUrl, DeploymentStatus status) {
         this.name = name;
         this.description = description;
         this.repositoryUrl = repositoryUrl;
+        this.repositoryKey = RepositoryKey.of(repositoryUrl);
         this.branch = branch;
         this.serviceUrl = serviceUrl;
         this.status = status;
     }
 
+    @PrePersist
+    @PreUpdate
+    public void syncRepositoryKey() {
+        this.repositoryKey = RepositoryKey.of(repositoryUrl);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -89,6 +112,11 @@ public class Deployment {
 
     public void setRepositoryUrl(String repositoryUrl) {
         this.repositoryUrl = repositoryUrl;
+        this.repositoryKey = RepositoryKey.of(repositoryUrl);
+    }
+
+    public String getRepositoryKey() {
+        return repositoryKey;
     }
 
     public String getBranch() {
@@ -107,6 +135,14 @@ public class Deployment {
         this.serviceUrl = serviceUrl;
     }
 
+    public String getWorkflowFile() {
+        return workflowFile;
+    }
+
+    public void setWorkflowFile(String workflowFile) {
+        this.workflowFile = workflowFile;
+    }
+
     public Long getWorkflowRunId() {
         return workflowRunId;
     }
@@ -0,0 +1,42 @@
+package com.devopsapi.devops.model;
+
+/**
+ * A change to broadcast to WebSocket clients on every node. {@code payload} is what clients
+ * receive: the deployment for UPDATE, its id for DELETE and the dispatch state for DISPATCH.
+ * Events that crossed nodes carry the JSON-decoded form of the payload.
+ */
+public class DeploymentEvent {
+    private final String eventId;
+    private final String originNode;
+    private final String type;
+    private final Long deploymentId;
+    private final Object payload;
+
+    public DeploymentEvent(String eventId, String originNode, String type, Long deploymentId, Object payload) {
+        this.eventId = eventId;
+        this.originNode = originNode;
+        this.type = type;
+        this.deploymentId = deploymentId;
+        this.payload = payload;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getDeploymentId() {
+        return deploymentId;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
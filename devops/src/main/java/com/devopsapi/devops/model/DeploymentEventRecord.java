@@ -0,0 +1,84 @@
+package com.devopsapi.devops.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link DeploymentEvent} as stored for the database-backed event bus. Rows are read
+ * by every node in id order and purged after a short retention period.
+ */
+@Entity
+@Table(name = "deployment_event", indexes = {
+        @Index(name = "idx_deployment_event_created_at", columnList = "createdAt")
+})
+public class DeploymentEventRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String eventId;
+
+    @Column(nullable = false, length = 100)
+    private String originNode;
+
+    @Column(nullable = false, length = 20)
+    private String type;
+
+    private Long deploymentId;
+
+    @Lob
+    private String payload;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public DeploymentEventRecord() {}
+
+    public DeploymentEventRecord(String eventId, String originNode, String type, Long deploymentId, String payload) {
+        this.eventId = eventId;
+        this.originNode = originNode;
+        this.type = type;
+        this.deploymentId = deploymentId;
+        this.payload = payload;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getDeploymentId() {
+        return deploymentId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
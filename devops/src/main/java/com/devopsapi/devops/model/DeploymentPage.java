@@ -0,0 +1,16 @@
+package com.devopsapi.devops.model;
+
+import java.util.List;
+
+public class DeploymentPage {
+    private final List<DeploymentSummary> items;
+    private final String nextCursor; // null on the last page
+
+    public DeploymentPage(List<DeploymentSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<DeploymentSummary> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,49 @@
+package com.devopsapi.devops.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of {@link Deployment} used by list and export endpoints,
+ * selected straight from JPQL so no managed entities are created.
+ */
+public class DeploymentSummary {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String repositoryUrl;
+    private final String branch;
+    private final String serviceUrl;
+    private final Long workflowRunId;
+    private final Deployment.DeploymentStatus status;
+    private final Deployment.HealthStatus healthStatus;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public DeploymentSummary(Long id, String name, String description, String repositoryUrl, String branch,
+                             String serviceUrl, Long workflowRunId, Deployment.DeploymentStatus status,
+                             Deployment.HealthStatus healthStatus, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.repositoryUrl = repositoryUrl;
+        this.branch = branch;
+        this.serviceUrl = serviceUrl;
+        this.workflowRunId = workflowRunId;
+        this.status = status;
+        this.healthStatus = healthStatus;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public String getRepositoryUrl() { return repositoryUrl; }
+    public String getBranch() { return branch; }
+    public String getServiceUrl() { return serviceUrl; }
+    public Long getWorkflowRunId() { return workflowRunId; }
+    public Deployment.DeploymentStatus getStatus() { return status; }
+    public Deployment.HealthStatus getHealthStatus() { return healthStatus; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,84 @@
+package com.devopsapi.devops.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending GitHub workflow dispatch, written in the same transaction as its deployment
+ * and worked off by the background dispatcher.
+ */
+@Entity
+@Table(name = "dispatch_outbox", indexes = {
+        @Index(name = "idx_dispatch_outbox_state_next_attempt", columnList = "state, nextAttemptAt")
+})
+public class DispatchOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long deploymentId;
+
+    private DispatchState state = DispatchState.PENDING;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime claimedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public enum DispatchState {
+        PENDING,
+        IN_FLIGHT,
+        DISPATCHED,
+        FAILED
+    }
+
+    public DispatchOutbox() {}
+
+    public DispatchOutbox(Long deploymentId) {
+        this.deploymentId = deploymentId;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDeploymentId() { return deploymentId; }
+    public void setDeploymentId(Long deploymentId) { this.deploymentId = deploymentId; }
+
+    public DispatchState getState() { return state; }
+    public void setState(DispatchState state) { this.state = state; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
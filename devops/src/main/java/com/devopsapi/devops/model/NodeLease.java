@@ -0,0 +1,54 @@
+package com.devopsapi.devops.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Membership row for one running application node. A node is live while it keeps
+ * renewing {@code heartbeatAt}; scheduled work is split between the live nodes.
+ */
+@Entity
+@Table(name = "node_lease", indexes = {
+        @Index(name = "idx_node_lease_heartbeat_at", columnList = "heartbeatAt")
+})
+public class NodeLease {
+
+    @Id
+    @Column(length = 100)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    public NodeLease() {}
+
+    public NodeLease(String nodeId, LocalDateTime startedAt) {
+        this.nodeId = nodeId;
+        this.startedAt = startedAt;
+        this.heartbeatAt = startedAt;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.devopsapi.devops.model;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses GitHub repository URLs into their {@code owner/repo} form.
+ */
+public final class RepositoryKey {
+
+    // Repository names may contain dots (socket.io, next.js); only a trailing .git is dropped
+    private static final Pattern GITHUB_REPO = Pattern.compile("github\\.com/([^/]+)/([^/?#]+?)(?:\\.git)?(?:[/?#]|$)");
+
+    private RepositoryKey() {}
+
+    /** Returns {@code owner/repo} as written in the URL, or null if it is not a GitHub repository URL. */
+    public static String ownerRepo(String url) {
+        if (url == null) return null;
+        Matcher matcher = GITHUB_REPO.matcher(url);
+        if (matcher.find()) return matcher.group(1) + "/" + matcher.group(2);
+        return null;
+    }
+
+    /** Returns the canonical lowercase {@code owner/repo} key used to match deployments to GitHub events. */
+    public static String of(String url) {
+        String ownerRepo = ownerRepo(url);
+        return ownerRepo != null ? ownerRepo.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -1,7 +1,7 @@
 package com.devopsapi.devops.model;
 
 public class WebSocketMessage {
-    private String type; // "UPDATE" or "DELETE"
+    private String type; // "UPDATE", "DELETE" or "DISPATCH"; "BATCH" for delta-mode clients
     private Object payload;
 
     public WebSocketMessage(String type, Object payload) {
@@ -0,0 +1,42 @@
+package com.devopsapi.devops.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * An accepted GitHub webhook delivery ({@code X-GitHub-Delivery}), kept so redeliveries
+ * are still recognised after a restart.
+ */
+@Entity
+@Table(name = "webhook_delivery", indexes = {
+        @Index(name = "idx_webhook_delivery_received_at", columnList = "receivedAt")
+})
+public class WebhookDelivery {
+
+    @Id
+    @Column(length = 64)
+    private String deliveryId;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    public WebhookDelivery() {}
+
+    public WebhookDelivery(String deliveryId, LocalDateTime receivedAt) {
+        this.deliveryId = deliveryId;
+        this.receivedAt = receivedAt;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.devopsapi.devops.repository;
+
+import com.devopsapi.devops.model.DeploymentEventRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DeploymentEventRecordRepository extends JpaRepository<DeploymentEventRecord, Long> {
+
+    List<DeploymentEventRecord> findTop500ByIdGreaterThanOrderById(Long id);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM DeploymentEventRecord e")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeploymentEventRecord e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
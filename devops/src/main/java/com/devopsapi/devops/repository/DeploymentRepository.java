@@ -1,9 +1,36 @@
 package com.devopsapi.devops.repository;
 
 import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface DeploymentRepository extends JpaRepository<Deployment, Long> {
-}
\ No newline at end of file
+public interface DeploymentRepository extends JpaRepository<Deployment, Long>, DeploymentRepositoryCustom {
+
+    List<Deployment> findByStatus(Deployment.DeploymentStatus status);
+
+    @Query("SELECT d FROM Deployment d WHERE d.serviceUrl IS NOT NULL AND d.serviceUrl <> ''")
+    List<Deployment> findAllWithServiceUrl();
+
+    List<Deployment> findByRepositoryKey(String repositoryKey);
+
+    List<Deployment> findByRepositoryKeyIn(Collection<String> repositoryKeys);
+
+    // Rows written before repositoryKey existed, or whose dotted repo name was keyed truncated; re-keyed at startup
+    @Query("SELECT d FROM Deployment d WHERE d.repositoryUrl IS NOT NULL AND (d.repositoryKey IS NULL OR d.repositoryUrl LIKE '%github.com/%/%.%')")
+    List<Deployment> findRepositoryKeyBackfillCandidates();
+
+    // Must be consumed inside a transaction; the fetch size keeps the driver streaming rows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DeploymentRepositoryImpl.SUMMARY_SELECT + " ORDER BY d.createdAt DESC, d.id DESC")
+    Stream<DeploymentSummary> streamAllSummaries();
+}
@@ -0,0 +1,17 @@
+package com.devopsapi.devops.repository;
+
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentCursor;
+import com.devopsapi.devops.model.DeploymentSummary;
+
+import java.util.List;
+
+public interface DeploymentRepositoryCustom {
+
+    /**
+     * Newest-first page of deployments strictly after {@code cursor}. Null filters are ignored;
+     * only the predicates actually supplied end up in the query.
+     */
+    List<DeploymentSummary> findSummaries(Deployment.DeploymentStatus status, Deployment.HealthStatus health,
+                                          String repositoryKey, String branch, DeploymentCursor cursor, int limit);
+}
@@ -0,0 +1,56 @@
+package com.devopsapi.devops.repository;
+
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentCursor;
+import com.devopsapi.devops.model.DeploymentSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class DeploymentRepositoryImpl implements DeploymentRepositoryCustom {
+
+    static final String SUMMARY_SELECT = "SELECT new com.devopsapi.devops.model.DeploymentSummary("
+            + "d.id, d.name, d.description, d.repositoryUrl, d.branch, d.serviceUrl, d.workflowRunId, "
+            + "d.status, d.healthStatus, d.createdAt, d.updatedAt) FROM Deployment d";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DeploymentSummary> findSummaries(Deployment.DeploymentStatus status, Deployment.HealthStatus health,
+                                                 String repositoryKey, String branch, DeploymentCursor cursor, int limit) {
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT).append(" WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (status != null) {
+            jpql.append(" AND d.status = :status");
+            params.put("status", status);
+        }
+        if (health != null) {
+            jpql.append(" AND d.healthStatus = :health");
+            params.put("health", health);
+        }
+        if (repositoryKey != null) {
+            jpql.append(" AND d.repositoryKey = :repositoryKey");
+            params.put("repositoryKey", repositoryKey);
+        }
+        if (branch != null) {
+            jpql.append(" AND d.branch = :branch");
+            params.put("branch", branch);
+        }
+        if (cursor != null) {
+            jpql.append(" AND (d.createdAt < :cursorCreatedAt OR (d.createdAt = :cursorCreatedAt AND d.id < :cursorId))");
+            params.put("cursorCreatedAt", cursor.getCreatedAt());
+            params.put("cursorId", cursor.getId());
+        }
+        jpql.append(" ORDER BY d.createdAt DESC, d.id DESC");
+
+        TypedQuery<DeploymentSummary> query = entityManager.createQuery(jpql.toString(), DeploymentSummary.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
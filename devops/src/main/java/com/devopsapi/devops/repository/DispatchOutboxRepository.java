@@ -0,0 +1,35 @@
+package com.devopsapi.devops.repository;
+
+import com.devopsapi.devops.model.DispatchOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DispatchOutboxRepository extends JpaRepository<DispatchOutbox, Long> {
+
+    List<DispatchOutbox> findTop50ByStateAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(DispatchOutbox.DispatchState state, LocalDateTime now);
+
+    // Atomic PENDING -> IN_FLIGHT transition; returns 0 if another worker got there first
+    @Transactional
+    @Modifying
+    @Query("UPDATE DispatchOutbox o SET o.state = :inFlight, o.claimedAt = :now WHERE o.id = :id AND o.state = :pending")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now,
+              @Param("pending") DispatchOutbox.DispatchState pending, @Param("inFlight") DispatchOutbox.DispatchState inFlight);
+
+    // Hands back claims whose worker died before recording an outcome
+    @Transactional
+    @Modifying
+    @Query("UPDATE DispatchOutbox o SET o.state = :pending WHERE o.state = :inFlight AND o.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff,
+                           @Param("pending") DispatchOutbox.DispatchState pending, @Param("inFlight") DispatchOutbox.DispatchState inFlight);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DispatchOutbox o WHERE o.state = :state AND o.updatedAt < :cutoff")
+    int deleteFinished(@Param("state") DispatchOutbox.DispatchState state, @Param("cutoff") LocalDateTime cutoff);
+}
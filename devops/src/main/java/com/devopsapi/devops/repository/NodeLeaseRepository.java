@@ -0,0 +1,28 @@
+package com.devopsapi.devops.repository;
+
+import com.devopsapi.devops.model.NodeLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NodeLeaseRepository extends JpaRepository<NodeLease, String> {
+
+    @Query("SELECT l.nodeId FROM NodeLease l WHERE l.heartbeatAt >= :cutoff")
+    List<String> findLiveNodeIds(@Param("cutoff") LocalDateTime cutoff);
+
+    // Renews an existing lease; returns 0 if it was reaped and has to be re-registered
+    @Transactional
+    @Modifying
+    @Query("UPDATE NodeLease l SET l.heartbeatAt = :now WHERE l.nodeId = :nodeId")
+    int renew(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NodeLease l WHERE l.heartbeatAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
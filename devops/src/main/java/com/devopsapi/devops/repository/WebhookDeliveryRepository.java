@@ -0,0 +1,23 @@
+package com.devopsapi.devops.repository;
+
+import com.devopsapi.devops.model.WebhookDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, String> {
+
+    // Oldest first, the order the in-memory window evicts in
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.receivedAt >= :cutoff ORDER BY d.receivedAt")
+    List<WebhookDelivery> findReceivedSince(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WebhookDelivery d WHERE d.receivedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,7 +2,10 @@ package com.devopsapi.devops.security;
 
 import com.devopsapi.devops.model.User;
 import com.devopsapi.devops.repository.UserRepository;
+import com.devopsapi.devops.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,6 +20,20 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${devops.auth.user-cache.ttl-ms:300000}")
+    private long principalTtlMs;
+
+    @Value("${devops.auth.user-cache.max-size:1000}")
+    private int principalCacheSize;
+
+    // Credential-free principals for already-authenticated JWT requests
+    private BoundedTtlCache<String, UserDetails> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = new BoundedTtlCache<>(principalCacheSize);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -30,4 +47,24 @@ public class CustomUserDetailsService implements UserDetailsService {
                         .collect(Collectors.toList())
         );
     }
+
+    /**
+     * Returns the principal for a request whose JWT has already been verified. Served from a TTL
+     * cache; the password is left out because these principals are never used to authenticate.
+     * Login keeps using {@link #loadUserByUsername} so it always checks the current password.
+     */
+    public UserDetails loadPrincipal(String username) throws UsernameNotFoundException {
+        UserDetails principal = principals.get(username);
+        if (principal == null) {
+            UserDetails user = loadUserByUsername(username);
+            principal = new org.springframework.security.core.userdetails.User(user.getUsername(), "", user.getAuthorities());
+            principals.put(username, principal, System.currentTimeMillis() + principalTtlMs);
+        }
+        return principal;
+    }
+
+    /** Call after changing a user's password or roles. */
+    public void evict(String username) {
+        principals.remove(username);
+    }
 }
@@ -1,9 +1,14 @@
 package com.devopsapi.devops.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,12 +23,17 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
         String path = request.getServletPath();
@@ -47,11 +57,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        // Covers signature check (or cache lookup), principal load and claim validation
+        Timer.Sample verification = Timer.start(meterRegistry);
+        String outcome = "rejected";
         try {
-            userEmail = jwtUtil.extractUsername(jwt);
+            // Verified once (and cached until expiry); everything below reuses these claims
+            Claims claims = jwtUtil.verify(jwt);
+            userEmail = claims.getSubject();
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtUtil.isTokenValid(jwt, userDetails)) {
+                UserDetails userDetails = this.userDetailsService.loadPrincipal(userEmail);
+                if (jwtUtil.isTokenValid(claims, userDetails)) {
+                    outcome = "authenticated";
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -65,7 +81,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Token validation failed (expired, malformed, etc.)
             // We don't throw here, just don't set authentication.
             // Spring Security will handle the 403 downstream.
-            System.err.println("JWT Validation Error: " + e.getMessage());
+            log.debug("JWT validation failed: {}", e.getMessage());
+            outcome = "invalid";
+        } finally {
+            verification.stop(meterRegistry.timer("jwt.verify", "outcome", outcome));
         }
 
         filterChain.doFilter(request, response);
@@ -1,16 +1,26 @@
 package com.devopsapi.devops.security;
 
+import com.devopsapi.devops.util.BoundedTtlCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -24,28 +34,66 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours
     private long jwtExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int verifiedTokenCacheSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    // SHA-256 of a token -> its verified claims, kept until the token's own expiry
+    private BoundedTtlCache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser().verifyWith(signInKey).build();
+        verifiedTokens = new BoundedTtlCache<>(verifiedTokenCacheSize);
+        cacheHits = meterRegistry.counter("jwt.cache", "result", "hit");
+        cacheMisses = meterRegistry.counter("jwt.cache", "result", "miss");
+    }
+
+    /**
+     * Verifies the token and returns its claims, parsing each distinct token only once until it expires.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is invalid or expired.
+     */
+    public Claims verify(String token) {
+        String tokenHash = hash(token);
+        Claims claims = verifiedTokens.get(tokenHash);
+        if (claims != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            claims = extractAllClaims(token);
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(tokenHash, claims, claims.getExpiration().getTime());
+            }
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -60,20 +108,28 @@ public class JwtUtil {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
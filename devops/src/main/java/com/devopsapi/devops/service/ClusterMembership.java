@@ -0,0 +1,167 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.NodeLease;
+import com.devopsapi.devops.repository.NodeLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks which application nodes are live through heartbeat leases in the shared database
+ * and splits scheduled work between them with a consistent-hash ring. Every node computes
+ * the same ring from the same lease rows, so each work key has exactly one owner, and a node
+ * joining or leaving only moves the keys next to its own points on the ring.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    @Autowired
+    private NodeLeaseRepository leaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${devops.cluster.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    @Value("${devops.cluster.virtual-nodes:64}")
+    private int virtualNodes;
+
+    @Value("${devops.cluster.heartbeat-ms:5000}")
+    private long heartbeatMs;
+
+    private final String nodeId;
+    private final AtomicLong rebalances = new AtomicLong();
+    private final AtomicLong heartbeatFailures = new AtomicLong();
+
+    // Empty until the first heartbeat; an empty ring means this node owns everything
+    private volatile NavigableMap<Long, String> ring = new TreeMap<>();
+    private volatile List<String> liveNodes = List.of();
+
+    private ScheduledExecutorService heartbeats;
+
+    public ClusterMembership(@Value("${devops.cluster.node-id:}") String nodeId) {
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    /**
+     * Heartbeats run on their own thread: on the shared scheduler they would queue behind a
+     * health sweep or GitHub sync and let the lease lapse while the node is healthy.
+     */
+    @PostConstruct
+    public void register() {
+        heartbeat();
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeatSafely, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void heartbeatSafely() {
+        try {
+            heartbeat();
+        } catch (Exception e) {
+            heartbeatFailures.incrementAndGet();
+            log.warn("Cluster heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void heartbeat() {
+        // Database time, so clock skew between nodes cannot make a live lease look expired
+        LocalDateTime now = jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class).toLocalDateTime();
+        if (leaseRepository.renew(nodeId, now) == 0) {
+            leaseRepository.save(new NodeLease(nodeId, now));
+        }
+        LocalDateTime cutoff = now.minusNanos(leaseTtlMs * 1_000_000);
+        leaseRepository.deleteExpired(cutoff);
+
+        List<String> live = leaseRepository.findLiveNodeIds(cutoff).stream().sorted().toList();
+        if (!live.equals(liveNodes)) {
+            ring = buildRing(live);
+            liveNodes = live;
+            rebalances.incrementAndGet();
+            log.info("Cluster membership changed: {} live node(s), this node is {}", live.size(), nodeId);
+        }
+    }
+
+    /** Whether this node is responsible for the given work key (a service URL, repository, ...). */
+    public boolean owns(String key) {
+        return nodeId.equals(ownerOf(key));
+    }
+
+    public String ownerOf(String key) {
+        NavigableMap<Long, String> current = ring;
+        if (current.isEmpty()) return nodeId;
+        Map.Entry<Long, String> owner = current.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : current.firstEntry().getValue();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private NavigableMap<Long, String> buildRing(List<String> nodes) {
+        NavigableMap<Long, String> points = new TreeMap<>();
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+        return points;
+    }
+
+    // FNV-1a with a final avalanche so nearby keys land far apart on the ring
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @PreDestroy
+    public void leave() {
+        heartbeats.shutdownNow();
+        // Other nodes pick up this node's share on their next heartbeat instead of after the TTL
+        leaseRepository.deleteById(nodeId);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("liveNodes", liveNodes);
+        stats.put("virtualNodes", virtualNodes);
+        stats.put("rebalances", rebalances.get());
+        stats.put("heartbeatFailures", heartbeatFailures.get());
+        return stats;
+    }
+}
@@ -0,0 +1,20 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.DeploymentEvent;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Carries deployment events to every application node. An event published once is handed to
+ * the subscribers of each node at most once; subscribers deliver it to their local sessions.
+ * Chosen with {@code devops.events.bus}: {@code local} (single node) or {@code jdbc}.
+ */
+public interface DeploymentEventBus {
+
+    void publish(DeploymentEvent event);
+
+    void subscribe(Consumer<DeploymentEvent> subscriber);
+
+    Map<String, Object> getStats();
+}
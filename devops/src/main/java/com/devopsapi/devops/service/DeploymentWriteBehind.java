@@ -0,0 +1,233 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.DeploymentWebSocketController;
+import com.devopsapi.devops.model.Deployment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers status, health and run-id changes and writes them in periodic batches. Each flush
+ * issues column-targeted JDBC batch updates in one transaction, then notifies WebSocket
+ * clients once it has committed. Callers should {@link #overlay} freshly loaded deployments
+ * so pending values are not mistaken for changes still to make.
+ */
+@Component
+public class DeploymentWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(DeploymentWriteBehind.class);
+
+    public enum Field {
+        STATUS("status"), HEALTH("health_status"), RUN_ID("workflow_run_id");
+
+        private final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DeploymentWebSocketController webSocketController;
+
+    @Value("${devops.writes.flush-ms:500}")
+    private long flushMs;
+
+    private final Map<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMs;
+    private volatile int lastFlushRows;
+
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService flusher;
+
+    // Latest values for one deployment; fields not set here are left untouched in the row
+    private static final class PendingWrite {
+        final EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        Deployment deployment;
+        Deployment.DeploymentStatus status;
+        Deployment.HealthStatus health;
+        Long runId;
+
+        synchronized void capture(Deployment source, Collection<Field> changed) {
+            for (Field field : changed) {
+                switch (field) {
+                    case STATUS -> status = source.getStatus();
+                    case HEALTH -> health = source.getHealthStatus();
+                    case RUN_ID -> runId = source.getWorkflowRunId();
+                }
+                fields.add(field);
+            }
+            deployment = source;
+            applyTo(source);
+        }
+
+        synchronized void applyTo(Deployment target) {
+            if (fields.contains(Field.STATUS)) target.setStatus(status);
+            if (fields.contains(Field.HEALTH)) target.setHealthStatus(health);
+            if (fields.contains(Field.RUN_ID)) target.setWorkflowRunId(runId);
+        }
+
+        // Keeps this write's newer values and takes the rest from an older, unflushed one
+        synchronized void fillFrom(PendingWrite older) {
+            if (older.fields.contains(Field.STATUS) && fields.add(Field.STATUS)) status = older.status;
+            if (older.fields.contains(Field.HEALTH) && fields.add(Field.HEALTH)) health = older.health;
+            if (older.fields.contains(Field.RUN_ID) && fields.add(Field.RUN_ID)) runId = older.runId;
+        }
+
+        Object valueOf(Field field) {
+            return switch (field) {
+                case STATUS -> status.ordinal();
+                case HEALTH -> health.ordinal();
+                case RUN_ID -> runId;
+            };
+        }
+    }
+
+    /**
+     * Flushes run on their own thread: status changes are only broadcast once flushed, so on the
+     * shared scheduler they would wait out a whole health sweep.
+     */
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Write-behind flush failed: {}", e.getMessage());
+        }
+    }
+
+    /** Queues the given fields of {@code deployment} for the next flush. */
+    public void submit(Deployment deployment, Field... fields) {
+        List<Field> changed = List.of(fields);
+        pending.compute(deployment.getId(), (id, write) -> {
+            if (write == null) write = new PendingWrite();
+            write.capture(deployment, changed);
+            return write;
+        });
+    }
+
+    /** Applies not-yet-flushed values to deployments just loaded from the database. */
+    public void overlay(Collection<Deployment> deployments) {
+        for (Deployment deployment : deployments) {
+            PendingWrite write = pending.get(deployment.getId());
+            if (write != null) write.applyTo(deployment);
+        }
+    }
+
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        List<PendingWrite> batch = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            PendingWrite write = pending.remove(id);
+            if (write != null) batch.add(write);
+        }
+        if (batch.isEmpty()) return;
+
+        long started = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> write(batch));
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            requeue(batch);
+            log.error("Write-behind flush of {} deployments failed: {}", batch.size(), e.getMessage());
+            return;
+        }
+        flushes.incrementAndGet();
+        rowsWritten.addAndGet(batch.size());
+        lastFlushRows = batch.size();
+        lastFlushMs = System.currentTimeMillis() - started;
+
+        // Clients only hear about changes that are durable
+        batch.forEach(write -> webSocketController.notifyDeploymentUpdate(write.deployment));
+    }
+
+    // One batched statement per combination of changed columns
+    private void write(List<PendingWrite> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<EnumSet<Field>, List<PendingWrite>> byColumns = batch.stream()
+                .collect(Collectors.groupingBy(write -> write.fields, LinkedHashMap::new, Collectors.toList()));
+        byColumns.forEach((fields, writes) -> {
+            String sql = "UPDATE deployment SET "
+                    + fields.stream().map(field -> field.column + " = ?").collect(Collectors.joining(", "))
+                    + ", updated_at = ? WHERE id = ?";
+            List<Object[]> args = new ArrayList<>(writes.size());
+            for (PendingWrite write : writes) {
+                List<Object> row = new ArrayList<>(fields.size() + 2);
+                fields.forEach(field -> row.add(write.valueOf(field)));
+                row.add(now);
+                row.add(write.deployment.getId());
+                args.add(row.toArray());
+            }
+            jdbcTemplate.batchUpdate(sql, args);
+        });
+    }
+
+    // Puts a failed batch back without overwriting anything submitted since
+    private void requeue(List<PendingWrite> batch) {
+        for (PendingWrite failed : batch) {
+            pending.compute(failed.deployment.getId(), (id, newer) -> {
+                if (newer == null) return failed;
+                newer.fillFrom(failed);
+                return newer;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("flushes", flushes.get());
+        stats.put("rowsWritten", rowsWritten.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("lastFlushRows", lastFlushRows);
+        stats.put("lastFlushMs", lastFlushMs);
+        return stats;
+    }
+}
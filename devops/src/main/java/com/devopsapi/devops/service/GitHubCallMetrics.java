@@ -0,0 +1,55 @@
+package com.devopsapi.devops.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Times every GitHub API call as {@code github.requests}, tagged by endpoint template, method
+ * and status class. Owner, repository, run ids and workflow names are folded out of the
+ * endpoint tag so the number of series stays fixed however many repositories we track.
+ */
+@Component
+public class GitHubCallMetrics implements ClientHttpRequestInterceptor {
+
+    private static final Pattern REPO_PREFIX = Pattern.compile("^/repos/[^/]+/[^/]+");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern WORKFLOW_SEGMENT = Pattern.compile("/workflows/[^/]+");
+
+    private final MeterRegistry meterRegistry;
+
+    public GitHubCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = (response.getStatusCode().value() / 100) + "xx";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("github.requests")
+                    .tag("endpoint", endpointOf(request.getURI().getPath()))
+                    .tag("method", request.getMethod().name())
+                    .tag("status", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    // /repos/acme/api/actions/runs/123/jobs -> /repos/{repo}/actions/runs/{id}/jobs
+    static String endpointOf(String path) {
+        String endpoint = REPO_PREFIX.matcher(path).replaceFirst("/repos/{repo}");
+        endpoint = WORKFLOW_SEGMENT.matcher(endpoint).replaceAll("/workflows/{workflow}");
+        return NUMERIC_SEGMENT.matcher(endpoint).replaceAll("/{id}");
+    }
+}
@@ -0,0 +1,11 @@
+package com.devopsapi.devops.service;
+
+/**
+ * Thrown by {@link GitHubRequestScheduler} when a call is refused to protect the API budget.
+ */
+public class GitHubRateLimitException extends RuntimeException {
+
+    public GitHubRateLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,207 @@
+package com.devopsapi.devops.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for GitHub API calls sharing one token. A token bucket paces calls so the
+ * remaining budget reported by GitHub (X-RateLimit-*) lasts until its reset. Background calls
+ * may not dip into a reserve kept for interactive ones and stop entirely when the budget runs
+ * low; {@link #pollIntervalMultiplier()} tells pollers how much to slow down.
+ */
+@Component
+public class GitHubRequestScheduler implements ClientHttpRequestInterceptor {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${devops.github.rate.burst:20}")
+    private int burst;
+
+    @Value("${devops.github.rate.interactive-reserve:5}")
+    private int interactiveReserve;
+
+    @Value("${devops.github.rate.interactive-max-wait-ms:2000}")
+    private long interactiveMaxWaitMs;
+
+    @Value("${devops.github.rate.background-floor-ratio:0.1}")
+    private double backgroundFloorRatio;
+
+    // Last values GitHub reported; defaults match an authenticated token until the first response
+    private volatile int limit = 5000;
+    private volatile int remaining = 5000;
+    private volatile long resetEpochSeconds;
+
+    private double tokens = -1;
+    private long lastRefillNanos = System.nanoTime();
+
+    private final AtomicLong interactiveCalls = new AtomicLong();
+    private final AtomicLong backgroundCalls = new AtomicLong();
+    private final AtomicLong backgroundDeferred = new AtomicLong();
+    private final AtomicLong interactiveRefused = new AtomicLong();
+
+    /**
+     * Runs the call once admitted. Timed as {@code github.calls} by priority and outcome:
+     * deferred/refused when admission failed, error when the call threw, completed otherwise.
+     * The time includes any wait for budget.
+     */
+    public <T> T execute(Priority priority, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = priority == Priority.BACKGROUND ? "deferred" : "refused";
+        try {
+            acquire(priority);
+            outcome = "error";
+            T result = call.get();
+            outcome = "completed";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("github.calls",
+                    "priority", priority.name().toLowerCase(Locale.ROOT), "outcome", outcome));
+        }
+    }
+
+    public void run(Priority priority, Runnable call) {
+        execute(priority, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private void acquire(Priority priority) {
+        if (priority == Priority.BACKGROUND) {
+            if (!tryAcquireBackground()) {
+                backgroundDeferred.incrementAndGet();
+                throw new GitHubRateLimitException("Background GitHub call deferred; " + remaining + " requests left");
+            }
+            backgroundCalls.incrementAndGet();
+            return;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(interactiveMaxWaitMs);
+        while (true) {
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    break;
+                }
+            }
+            if (isServerExhausted()) {
+                interactiveRefused.incrementAndGet();
+                throw new GitHubRateLimitException("GitHub rate limit exhausted until " + Instant.ofEpochSecond(resetEpochSeconds));
+            }
+            // Local pacing only; GitHub still has budget, so a user-facing call goes ahead after a short wait
+            if (System.nanoTime() > deadline) break;
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GitHubRateLimitException("Interrupted while waiting for GitHub budget");
+            }
+        }
+        interactiveCalls.incrementAndGet();
+    }
+
+    private synchronized boolean tryAcquireBackground() {
+        refill();
+        if (isServerExhausted() || remaining <= limit * backgroundFloorRatio) return false;
+        if (tokens < interactiveReserve + 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (tokens < 0) {
+            tokens = burst;
+        } else {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(burst, tokens + elapsedSeconds * ratePerSecond());
+        }
+        lastRefillNanos = now;
+    }
+
+    // Spread what is left evenly over the time until GitHub resets the window
+    private double ratePerSecond() {
+        long secondsToReset = resetEpochSeconds - Instant.now().getEpochSecond();
+        if (resetEpochSeconds == 0 || secondsToReset <= 0) return limit / 3600.0;
+        return Math.max(0, remaining) / (double) Math.max(1, secondsToReset);
+    }
+
+    private boolean isServerExhausted() {
+        return remaining <= 0 && Instant.now().getEpochSecond() < resetEpochSeconds;
+    }
+
+    /**
+     * Factor by which background polling should stretch its interval: 1 while more than half the
+     * budget is left, doubling as it shrinks.
+     */
+    public int pollIntervalMultiplier() {
+        double left = limit > 0 ? remaining / (double) limit : 1;
+        if (left > 0.5) return 1;
+        if (left > 0.25) return 2;
+        if (left > backgroundFloorRatio) return 4;
+        return 8;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+        HttpHeaders headers = response.getHeaders();
+        Integer reportedLimit = parseInt(headers.getFirst("X-RateLimit-Limit"));
+        Integer reportedRemaining = parseInt(headers.getFirst("X-RateLimit-Remaining"));
+        Integer reportedReset = parseInt(headers.getFirst("X-RateLimit-Reset"));
+        if (reportedLimit != null) limit = reportedLimit;
+        if (reportedRemaining != null) remaining = reportedRemaining;
+        if (reportedReset != null) resetEpochSeconds = reportedReset;
+        return response;
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", limit);
+        stats.put("remaining", remaining);
+        stats.put("resetAt", resetEpochSeconds > 0 ? Instant.ofEpochSecond(resetEpochSeconds).toString() : null);
+        synchronized (this) {
+            refill();
+            stats.put("tokens", Math.floor(tokens));
+        }
+        stats.put("pollIntervalMultiplier", pollIntervalMultiplier());
+        stats.put("interactiveCalls", interactiveCalls.get());
+        stats.put("backgroundCalls", backgroundCalls.get());
+        stats.put("backgroundDeferred", backgroundDeferred.get());
+        stats.put("interactiveRefused", interactiveRefused.get());
+        return stats;
+    }
+}
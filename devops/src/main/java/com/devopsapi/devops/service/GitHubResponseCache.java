@@ -0,0 +1,175 @@
+package com.devopsapi.devops.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conditional-request cache for GitHub GETs. Responses carrying an ETag or Last-Modified are kept
+ * in a bounded LRU; later requests send If-None-Match/If-Modified-Since and a 304 (which GitHub
+ * does not charge against the rate limit) is answered from the cached body.
+ */
+@Component
+public class GitHubResponseCache implements ClientHttpRequestInterceptor {
+
+    private final int maxEntries;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GitHubResponseCache(@Value("${devops.github.cache.max-entries:2000}") int maxEntries,
+                               @Value("${devops.github.cache.max-bytes:33554432}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    private record CachedResponse(String etag, String lastModified, HttpHeaders headers, byte[] body) {}
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            if (cached.etag() != null) request.getHeaders().setIfNoneMatch(cached.etag());
+            if (cached.lastModified() != null) request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        } else {
+            misses.incrementAndGet();
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        int status = response.getStatusCode().value();
+
+        if (status == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            notModified.incrementAndGet();
+            response.close();
+            return new CachedClientHttpResponse(cached);
+        }
+
+        if (status == HttpStatus.OK.value()) {
+            String etag = response.getHeaders().getETag();
+            String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+            if (etag != null || lastModified != null) {
+                byte[] responseBody;
+                try (response) {
+                    responseBody = StreamUtils.copyToByteArray(response.getBody());
+                }
+                CachedResponse entry = new CachedResponse(etag, lastModified, HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), responseBody);
+                store(key, entry);
+                return new CachedClientHttpResponse(entry);
+            }
+        }
+        return response;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("notModified", notModified.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private CachedResponse lookup(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void store(String key, CachedResponse entry) {
+        if (entry.body().length > maxBytes) return;
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, entry);
+            if (previous != null) totalBytes -= previous.body().length;
+            totalBytes += entry.body().length;
+
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+                totalBytes -= eldest.next().body().length;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Keyed by token digest as well as URL so a rotated token never sees another token's data
+    private static String cacheKey(HttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) return request.getURI().toString();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8) + " " + request.getURI();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CachedClientHttpResponse implements ClientHttpResponse {
+
+        private final CachedResponse cached;
+
+        private CachedClientHttpResponse(CachedResponse cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return cached.headers();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(cached.body());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,41 +1,83 @@
 package com.devopsapi.devops.service;
 
+import com.devopsapi.devops.config.HttpTransport;
 import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.RepositoryKey;
 import com.devopsapi.devops.repository.DeploymentRepository;
-import com.devopsapi.devops.DeploymentWebSocketController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class GitHubService {
 
+    private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
+
     @Value("${github.token:}")
     private String githubTokenEnv;
 
     @Autowired
-    private com.devopsapi.devops.repository.AppSettingRepository appSettingRepository;
+    private SettingsService settingsService;
 
     @Autowired
     private DeploymentRepository deploymentRepository;
 
     @Autowired
-    private DeploymentWebSocketController webSocketController;
+    private RunPollScheduler runPollScheduler;
+
+    @Autowired
+    private DeploymentWriteBehind writeBehind;
+
+    @Autowired
+    private ClusterMembership cluster;
+
+    private final RestTemplate restTemplate;
+
+    private final WorkflowRegistry workflowRegistry;
+    private final GitHubRequestScheduler requestScheduler;
+
+    // Runs created this long before their deployment still match it (GitHub vs. local clock)
+    private static final long RUN_CLOCK_SKEW_SECONDS = 60;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${devops.github.runs.page-size:30}")
+    private int runsPageSize;
+
+    // Runs we dispatch are workflow_dispatch runs; empty matches any event
+    @Value("${devops.github.runs.event:workflow_dispatch}")
+    private String runsEvent;
+
+    public GitHubService(HttpTransport transport, GitHubResponseCache responseCache, WorkflowRegistry workflowRegistry,
+                         GitHubRequestScheduler requestScheduler, GitHubCallMetrics callMetrics,
+                         @Value("${devops.github.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.restTemplate = transport.restTemplate("github", Duration.ofMillis(readTimeoutMs));
+        // Outermost, so cache hits are timed too; admission waits and refusals happen before the
+        // HTTP call and are timed by the scheduler as github.calls
+        this.restTemplate.getInterceptors().add(callMetrics);
+        // The scheduler sits inside the cache so it reads rate-limit headers from real responses, 304s included
+        this.restTemplate.getInterceptors().add(responseCache);
+        this.restTemplate.getInterceptors().add(requestScheduler);
+        this.workflowRegistry = workflowRegistry;
+        this.workflowRegistry.setLoader(this::listWorkflows);
+        this.requestScheduler = requestScheduler;
+    }
 
     private String getGitHubToken() {
-        return appSettingRepository.findById("GITHUB_TOKEN")
-                .map(com.devopsapi.devops.model.AppSetting::getValue)
-                .filter(s -> !s.isEmpty())
-                .orElse(githubTokenEnv);
+        return settingsService.get("GITHUB_TOKEN").orElse(githubTokenEnv);
     }
 
     public List<String> getBranches(String repoUrl) {
@@ -48,13 +90,14 @@ public class GitHubService {
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<List> response = restTemplate.exchange(url, HttpMethod.GET, entity, List.class);
+            ResponseEntity<List> response = requestScheduler.execute(GitHubRequestScheduler.Priority.INTERACTIVE,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, List.class));
             if (response.getStatusCode() == HttpStatus.OK) {
                 List<Map<String, Object>> branches = response.getBody();
                 return branches.stream().map(b -> (String) b.get("name")).toList();
             }
         } catch (Exception e) {
-            System.err.println("Error fetching branches: " + e.getMessage());
+            log.warn("Error fetching branches for {}: {}", ownerRepo, e.getMessage());
         }
         return Collections.singletonList("main"); // Default fallback
     }
@@ -69,80 +112,217 @@ public class GitHubService {
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
+            ResponseEntity<Map> response = requestScheduler.execute(GitHubRequestScheduler.Priority.INTERACTIVE,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, Map.class));
             return response.getBody();
         } catch (Exception e) {
             return Collections.emptyMap();
         }
     }
 
+    /**
+     * Dispatches the deployment's workflow. Throws {@link WorkflowDispatchException} on failure
+     * so the caller can decide whether to retry.
+     */
     public void triggerWorkflow(Deployment deployment) {
         String token = getGitHubToken();
         if (token.isEmpty()) {
-            System.err.println("WARNING: Cannot trigger workflow. No GitHub token configured.");
-            return;
+            // Retryable: the token can still be configured through the settings UI
+            throw new WorkflowDispatchException("No GitHub token configured", true);
         }
 
         String ownerRepo = extractOwnerRepo(deployment.getRepositoryUrl());
-        if (ownerRepo == null) return;
+        if (ownerRepo == null) {
+            throw new WorkflowDispatchException("Not a GitHub repository URL: " + deployment.getRepositoryUrl(), false);
+        }
 
         try {
-            // Find first workflow
-            String workflowsUrl = String.format("https://api.github.com/repos/%s/actions/workflows", ownerRepo);
-            ResponseEntity<Map> wfResp = restTemplate.exchange(workflowsUrl, HttpMethod.GET, new HttpEntity<>(createHeaders(token)), Map.class);
-            
-            List workflows = (List) wfResp.getBody().get("workflows");
-            if (workflows == null || workflows.isEmpty()) return;
-            
-            Object workflowId = ((Map) workflows.get(0)).get("id");
-            String triggerUrl = String.format("https://api.github.com/repos/%s/actions/workflows/%s/dispatches", ownerRepo, workflowId);
-            
-            Map<String, Object> body = new HashMap<>();
-            body.put("ref", deployment.getBranch() != null ? deployment.getBranch() : "main");
-            
-            restTemplate.postForEntity(triggerUrl, new HttpEntity<>(body, createHeaders(token)), Void.class);
-            
+            String workflowId = workflowRegistry.resolve(ownerRepo, deployment.getWorkflowFile());
+            if (workflowId == null) {
+                throw new WorkflowDispatchException("No workflows found in " + ownerRepo, false);
+            }
+
+            try {
+                dispatch(ownerRepo, workflowId, deployment, token);
+            } catch (HttpClientErrorException.NotFound e) {
+                // The cached workflow was removed or renamed; resolve it again and retry once
+                workflowRegistry.invalidate(ownerRepo);
+                if (deployment.getWorkflowFile() != null) throw e;
+                String refreshedId = workflowRegistry.resolve(ownerRepo, null);
+                if (refreshedId == null || refreshedId.equals(workflowId)) throw e;
+                dispatch(ownerRepo, refreshedId, deployment, token);
+            }
+
             // Note: We don't get the runId back immediately from dispatches.
             // We'll rely on the Webhook to update the workflowRunId when it starts.
-        } catch (Exception e) {
-            System.err.println("Error triggering workflow: " + e.getMessage());
+        } catch (HttpClientErrorException e) {
+            // 403/429 are GitHub's rate-limit answers; other 4xx will not change on retry
+            int status = e.getStatusCode().value();
+            throw new WorkflowDispatchException("GitHub rejected dispatch: " + status + " " + e.getStatusText(),
+                    status == 403 || status == 429, e);
+        } catch (RestClientException | GitHubRateLimitException e) {
+            throw new WorkflowDispatchException("GitHub dispatch failed: " + e.getMessage(), true, e);
         }
     }
 
-    @Scheduled(fixedDelay = 10000)
+    private void dispatch(String ownerRepo, String workflowId, Deployment deployment, String token) {
+        String triggerUrl = String.format("https://api.github.com/repos/%s/actions/workflows/%s/dispatches", ownerRepo, workflowId);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("ref", deployment.getBranch() != null ? deployment.getBranch() : "main");
+
+        requestScheduler.run(GitHubRequestScheduler.Priority.INTERACTIVE,
+                () -> restTemplate.postForEntity(triggerUrl, new HttpEntity<>(body, createHeaders(token)), Void.class));
+    }
+
+    private List<Map<String, Object>> listWorkflows(String ownerRepo, boolean background) {
+        String workflowsUrl = String.format("https://api.github.com/repos/%s/actions/workflows", ownerRepo);
+        GitHubRequestScheduler.Priority priority = background ? GitHubRequestScheduler.Priority.BACKGROUND : GitHubRequestScheduler.Priority.INTERACTIVE;
+        ResponseEntity<Map> response = requestScheduler.execute(priority,
+                () -> restTemplate.exchange(workflowsUrl, HttpMethod.GET, new HttpEntity<>(createHeaders(getGitHubToken())), Map.class));
+        return (List<Map<String, Object>>) response.getBody().get("workflows");
+    }
+
+    // Ticks often, but only deployments whose own poll is due are fetched
+    @Scheduled(fixedDelay = 1000)
     public void syncInProgressDeployments() {
         if (getGitHubToken().isEmpty()) return;
-        deploymentRepository.findAll().stream()
-                .filter(d -> d.getStatus() == Deployment.DeploymentStatus.IN_PROGRESS)
-                .forEach(this::checkAndUpdateStatus);
+        List<Long> due = runPollScheduler.takeDue();
+        if (due.isEmpty()) return;
+
+        List<Deployment> loaded = deploymentRepository.findAllById(due);
+        writeBehind.overlay(loaded);
+        List<Deployment> active = new ArrayList<>();
+        for (Deployment deployment : loaded) {
+            if (isTerminal(deployment.getStatus())) {
+                runPollScheduler.complete(deployment.getId());
+            } else if (deployment.getRepositoryKey() != null && !cluster.owns(deployment.getRepositoryKey())) {
+                // Another node polls this repository and tracks the deployment through its own reconcile
+                runPollScheduler.complete(deployment.getId());
+            } else if (deployment.getRepositoryKey() != null) {
+                active.add(deployment);
+            }
+        }
+
+        // One runs request per repository, however many deployments point at it
+        active.stream()
+                .collect(Collectors.groupingBy(Deployment::getRepositoryKey))
+                .values()
+                .forEach(this::syncRepository);
     }
 
-    private void checkAndUpdateStatus(Deployment deployment) {
+    private void syncRepository(List<Deployment> deployments) {
         String token = getGitHubToken();
-        String ownerRepo = extractOwnerRepo(deployment.getRepositoryUrl());
-        String url = String.format("https://api.github.com/repos/%s/actions/runs?per_page=1", ownerRepo);
+        String ownerRepo = extractOwnerRepo(deployments.get(0).getRepositoryUrl());
+        Set<String> branches = deployments.stream().map(GitHubService::branchOf).collect(Collectors.toSet());
+
+        UriComponentsBuilder runsUrl = UriComponentsBuilder
+                .fromUriString(String.format("https://api.github.com/repos/%s/actions/runs", ownerRepo))
+                .queryParam("per_page", runsPageSize);
+        if (!runsEvent.isEmpty()) runsUrl.queryParam("event", runsEvent);
+        if (branches.size() == 1) runsUrl.queryParam("branch", branches.iterator().next());
+        URI url = runsUrl.encode().build().toUri();
 
+        List<Map<String, Object>> runs = fetchRuns(url, token);
+        if (runs == null) return;
+
+        // A run belongs to at most one deployment; oldest deployments pick first
+        Set<Long> claimed = new HashSet<>();
+        deployments.stream().map(Deployment::getWorkflowRunId).filter(Objects::nonNull).forEach(claimed::add);
+        // Webhooks stamp one run id on every deployment of the repository; fetch each run once,
+        // remembering failures too so one unreachable run costs one request
+        Map<Long, Optional<Map<String, Object>>> fetchedRuns = new HashMap<>();
+        deployments.stream()
+                .sorted(Comparator.comparing(Deployment::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(deployment -> {
+                    Map<String, Object> run = matchRun(deployment, runs, claimed);
+                    if (run == null && deployment.getWorkflowRunId() != null) {
+                        // Known run that has scrolled off the first page
+                        run = fetchedRuns.computeIfAbsent(deployment.getWorkflowRunId(),
+                                runId -> Optional.ofNullable(fetchRun(ownerRepo, runId, token))).orElse(null);
+                    }
+                    if (run != null) {
+                        claimed.add(runId(run));
+                        applyRun(deployment, run);
+                    }
+                });
+    }
+
+    /**
+     * Picks the deployment's run: by id once known, otherwise the earliest unclaimed run on the
+     * deployment's branch created after the deployment was (allowing for clock skew).
+     */
+    static Map<String, Object> matchRun(Deployment deployment, List<Map<String, Object>> runs, Set<Long> claimed) {
+        if (deployment.getWorkflowRunId() != null) {
+            return runs.stream().filter(run -> deployment.getWorkflowRunId().equals(runId(run))).findFirst().orElse(null);
+        }
+        // createdAt is local wall-clock time (Hibernate fills it from the JVM zone); GitHub's is UTC
+        Instant notBefore = deployment.getCreatedAt() != null
+                ? deployment.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().minusSeconds(RUN_CLOCK_SKEW_SECONDS)
+                : Instant.EPOCH;
+        String branch = branchOf(deployment);
+        return runs.stream()
+                .filter(run -> branch.equals(run.get("head_branch")))
+                .filter(run -> !claimed.contains(runId(run)))
+                .filter(run -> !createdAt(run).isBefore(notBefore))
+                .min(Comparator.comparing(GitHubService::createdAt))
+                .orElse(null);
+    }
+
+    private List<Map<String, Object>> fetchRuns(URI url, String token) {
+        try {
+            ResponseEntity<Map> response = requestScheduler.execute(GitHubRequestScheduler.Priority.BACKGROUND,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(createHeaders(token)), Map.class));
+            return (List<Map<String, Object>>) response.getBody().get("workflow_runs");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> fetchRun(String ownerRepo, Long runId, String token) {
+        String url = String.format("https://api.github.com/repos/%s/actions/runs/%d", ownerRepo, runId);
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(createHeaders(token)), Map.class);
-            Map latestRun = (Map) ((List) response.getBody().get("workflow_runs")).get(0);
-            
-            String ghStatus = (String) latestRun.get("status");
-            String ghConclusion = (String) latestRun.get("conclusion");
-            Long runId = Long.valueOf(latestRun.get("id").toString());
+            ResponseEntity<Map> response = requestScheduler.execute(GitHubRequestScheduler.Priority.BACKGROUND,
+                    () -> restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(createHeaders(token)), Map.class));
+            return response.getBody();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void applyRun(Deployment deployment, Map<String, Object> run) {
+        Long runId = runId(run);
+        Deployment.DeploymentStatus newStatus = WebhookIngestionService.toDeploymentStatus((String) run.get("status"), (String) run.get("conclusion"));
+        // A queued run says nothing new; never move a deployment back to PENDING from a poll
+        if (newStatus == Deployment.DeploymentStatus.PENDING) {
+            newStatus = deployment.getStatus();
+        }
 
+        if (newStatus != deployment.getStatus() || !runId.equals(deployment.getWorkflowRunId())) {
             deployment.setWorkflowRunId(runId);
-            
-            Deployment.DeploymentStatus newStatus = deployment.getStatus();
-            if ("completed".equals(ghStatus)) {
-                newStatus = "success".equals(ghConclusion) ? Deployment.DeploymentStatus.COMPLETED : Deployment.DeploymentStatus.FAILED;
-            }
+            deployment.setStatus(newStatus);
+            writeBehind.submit(deployment, DeploymentWriteBehind.Field.STATUS, DeploymentWriteBehind.Field.RUN_ID);
+        }
+        if (isTerminal(newStatus)) {
+            runPollScheduler.complete(deployment.getId());
+        }
+    }
 
-            if (newStatus != deployment.getStatus()) {
-                deployment.setStatus(newStatus);
-                deploymentRepository.save(deployment);
-                webSocketController.notifyDeploymentUpdate(deployment);
-            }
-        } catch (Exception e) {}
+    private static boolean isTerminal(Deployment.DeploymentStatus status) {
+        return status == Deployment.DeploymentStatus.COMPLETED || status == Deployment.DeploymentStatus.FAILED;
+    }
+
+    private static Long runId(Map<String, Object> run) {
+        return Long.valueOf(run.get("id").toString());
+    }
+
+    private static Instant createdAt(Map<String, Object> run) {
+        Object createdAt = run.get("created_at");
+        return createdAt != null ? Instant.parse(createdAt.toString()) : Instant.EPOCH;
+    }
+
+    private static String branchOf(Deployment deployment) {
+        return deployment.getBranch() != null ? deployment.getBranch() : "main";
     }
 
     private HttpHeaders createHeaders(String token) {
@@ -155,10 +335,6 @@ public class GitHubService {
     }
 
     private String extractOwnerRepo(String url) {
-        if (url == null) return null;
-        Pattern pattern = Pattern.compile("github\\.com/([^/]+)/([^/\\.]*)");
-        Matcher matcher = pattern.matcher(url);
-        if (matcher.find()) return matcher.group(1) + "/" + matcher.group(2);
-        return null;
+        return RepositoryKey.ownerRepo(url);
     }
 }
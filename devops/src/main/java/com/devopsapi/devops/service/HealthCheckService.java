@@ -2,58 +2,102 @@ package com.devopsapi.devops.service;
 
 import com.devopsapi.devops.model.Deployment;
 import com.devopsapi.devops.repository.DeploymentRepository;
-import com.devopsapi.devops.DeploymentWebSocketController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class HealthCheckService {
 
+    private static final Logger log = LoggerFactory.getLogger(HealthCheckService.class);
+
     @Autowired
     private DeploymentRepository deploymentRepository;
 
     @Autowired
-    private DeploymentWebSocketController webSocketController;
+    private HealthProbeEngine probeEngine;
 
-    private final RestTemplate restTemplate;
+    @Autowired
+    private HealthHistoryStore historyStore;
 
-    public HealthCheckService() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(3000);
-        factory.setReadTimeout(3000);
-        this.restTemplate = new RestTemplate(factory);
-    }
+    @Autowired
+    private DeploymentWriteBehind writeBehind;
+
+    @Autowired
+    private ClusterMembership cluster;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Map<String, Object> lastSweep = Collections.emptyMap();
 
     @Scheduled(fixedDelay = 30000) // Every 30 seconds
     public void checkHealth() {
-        deploymentRepository.findAll().stream()
-                .filter(d -> d.getServiceUrl() != null && !d.getServiceUrl().isEmpty())
-                .forEach(this::performCheck);
-    }
+        // Deployments sharing a serviceUrl are probed once and all get the same result;
+        // each URL is probed only by the node that owns it
+        List<Deployment> deployments = deploymentRepository.findAllWithServiceUrl();
+        writeBehind.overlay(deployments);
+        Map<String, List<Deployment>> byUrl = new LinkedHashMap<>();
+        for (Deployment deployment : deployments) {
+            if (!cluster.owns(deployment.getServiceUrl())) continue;
+            byUrl.computeIfAbsent(deployment.getServiceUrl(), url -> new ArrayList<>()).add(deployment);
+        }
+        // Also when nothing is left to probe: deleted deployments and URLs now owned elsewhere lose their rings
+        historyStore.retainAll(byUrl.values().stream().flatMap(List::stream).map(Deployment::getId).collect(Collectors.toSet()));
+        if (byUrl.isEmpty()) return;
 
-    private void performCheck(Deployment deployment) {
-        Deployment.HealthStatus oldStatus = deployment.getHealthStatus();
-        Deployment.HealthStatus newStatus;
+        LocalDateTime startedAt = LocalDateTime.now();
+        HealthProbeEngine.SweepResult sweep = probeEngine.probeAll(byUrl.keySet());
+        meterRegistry.timer("health.sweep").record(sweep.duration());
+        meterRegistry.counter("health.probe.timeouts").increment(sweep.timedOut());
 
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity(deployment.getServiceUrl(), String.class);
-            if (response.getStatusCode().is2xxSuccessful()) {
-                newStatus = Deployment.HealthStatus.HEALTHY;
-            } else {
-                newStatus = Deployment.HealthStatus.UNHEALTHY;
+        long probedAt = System.currentTimeMillis();
+        int healthy = 0;
+        for (Map.Entry<String, HealthProbeEngine.ProbeResult> entry : sweep.results().entrySet()) {
+            HealthProbeEngine.ProbeResult result = entry.getValue();
+            if (result.healthy()) healthy++;
+            for (Deployment deployment : byUrl.get(entry.getKey())) {
+                historyStore.record(deployment.getId(), probedAt, result.latencyMs(), result.statusCode());
+                applyResult(deployment, result);
             }
-        } catch (Exception e) {
-            newStatus = Deployment.HealthStatus.UNHEALTHY;
         }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("startedAt", startedAt);
+        summary.put("durationMs", sweep.duration().toMillis());
+        summary.put("deployments", byUrl.values().stream().mapToInt(List::size).sum());
+        summary.put("urlsProbed", byUrl.size());
+        summary.put("healthy", healthy);
+        summary.put("unhealthy", sweep.results().size() - healthy);
+        summary.put("timedOut", sweep.timedOut());
+        lastSweep = summary;
+
+        log.info("Health sweep finished in {} ms: {} URLs, {} timed out", sweep.duration().toMillis(), byUrl.size(), sweep.timedOut());
+    }
+
+    public Map<String, Object> getLastSweep() {
+        return lastSweep;
+    }
+
+    private void applyResult(Deployment deployment, HealthProbeEngine.ProbeResult result) {
+        Deployment.HealthStatus newStatus = result.healthy()
+                ? Deployment.HealthStatus.HEALTHY
+                : Deployment.HealthStatus.UNHEALTHY;
 
-        if (oldStatus != newStatus) {
+        if (deployment.getHealthStatus() != newStatus) {
             deployment.setHealthStatus(newStatus);
-            deploymentRepository.save(deployment);
-            webSocketController.notifyDeploymentUpdate(deployment);
+            // A shared dependency going down flips many deployments at once; write them as one batch
+            writeBehind.submit(deployment, DeploymentWriteBehind.Field.HEALTH);
         }
     }
 }
@@ -0,0 +1,139 @@
+package com.devopsapi.devops.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent health-probe samples per deployment, kept in fixed-size rings of primitive arrays.
+ * Each ring also maintains a log-bucketed latency histogram that is updated as samples are
+ * overwritten, so percentiles are read from the histogram instead of sorting a copy.
+ */
+@Component
+public class HealthHistoryStore {
+
+    // Values below 16 ms get exact buckets; above that, 8 buckets per power of two (at most 12.5% wide)
+    private static final int EXACT_BUCKETS = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKET_COUNT = EXACT_BUCKETS + (31 - 4) * SUB_BUCKETS;
+
+    private final int capacity;
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    public HealthHistoryStore(@Value("${devops.health.history.size:256}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public record Sample(Instant timestamp, int latencyMs, int statusCode) {}
+
+    public void record(Long deploymentId, long timestampMillis, long latencyMs, int statusCode) {
+        rings.computeIfAbsent(deploymentId, id -> new Ring(capacity))
+                .add(timestampMillis, (int) Math.min(latencyMs, Integer.MAX_VALUE), statusCode);
+    }
+
+    public void remove(Long deploymentId) {
+        rings.remove(deploymentId);
+    }
+
+    public void clear() {
+        rings.clear();
+    }
+
+    /** Drops history for deployments that are no longer probed; a Set keeps this linear in the ring count. */
+    public void retainAll(Set<Long> deploymentIds) {
+        rings.keySet().retainAll(deploymentIds);
+    }
+
+    /** Up to {@code limit} newest samples, newest first, plus latency percentiles over the whole ring. */
+    public Map<String, Object> snapshot(Long deploymentId, int limit) {
+        Ring ring = rings.get(deploymentId);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("deploymentId", deploymentId);
+        result.put("capacity", capacity);
+        if (ring == null) {
+            result.put("count", 0);
+            result.put("samples", List.of());
+            return result;
+        }
+        synchronized (ring) {
+            result.put("count", ring.count);
+            result.put("p50", ring.percentile(0.50));
+            result.put("p95", ring.percentile(0.95));
+            result.put("p99", ring.percentile(0.99));
+            result.put("samples", ring.newest(limit));
+        }
+        return result;
+    }
+
+    private static final class Ring {
+        final long[] timestamps;
+        final int[] latencies;
+        final short[] statuses;
+        final int[] histogram = new int[BUCKET_COUNT];
+        int next;
+        int count;
+
+        Ring(int capacity) {
+            timestamps = new long[capacity];
+            latencies = new int[capacity];
+            statuses = new short[capacity];
+        }
+
+        synchronized void add(long timestamp, int latencyMs, int statusCode) {
+            if (count == timestamps.length) {
+                histogram[bucketOf(latencies[next])]--;
+            } else {
+                count++;
+            }
+            timestamps[next] = timestamp;
+            latencies[next] = latencyMs;
+            statuses[next] = (short) statusCode;
+            histogram[bucketOf(latencyMs)]++;
+            next = (next + 1) % timestamps.length;
+        }
+
+        // Upper bound of the bucket holding the requested rank
+        Integer percentile(double quantile) {
+            if (count == 0) return null;
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                seen += histogram[bucket];
+                if (seen >= rank) return upperBoundOf(bucket);
+            }
+            return upperBoundOf(BUCKET_COUNT - 1);
+        }
+
+        List<Sample> newest(int limit) {
+            int n = Math.min(limit, count);
+            List<Sample> samples = new ArrayList<>(n);
+            for (int i = 1; i <= n; i++) {
+                int index = Math.floorMod(next - i, timestamps.length);
+                samples.add(new Sample(Instant.ofEpochMilli(timestamps[index]), latencies[index], statuses[index]));
+            }
+            return samples;
+        }
+    }
+
+    static int bucketOf(int latencyMs) {
+        if (latencyMs < EXACT_BUCKETS) return Math.max(0, latencyMs);
+        int exponent = 31 - Integer.numberOfLeadingZeros(latencyMs);
+        int sub = (latencyMs >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return EXACT_BUCKETS + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    static int upperBoundOf(int bucket) {
+        if (bucket < EXACT_BUCKETS) return bucket;
+        int exponent = (bucket - EXACT_BUCKETS) / SUB_BUCKETS + 4;
+        int sub = (bucket - EXACT_BUCKETS) % SUB_BUCKETS;
+        long upper = ((long) (SUB_BUCKETS + sub + 1) << (exponent - 3)) - 1;
+        return (int) Math.min(upper, Integer.MAX_VALUE);
+    }
+}
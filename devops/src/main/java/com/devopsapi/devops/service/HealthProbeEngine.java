@@ -0,0 +1,164 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.config.HttpTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Fans health probes out on virtual threads. Concurrency is capped globally and per host,
+ * and a whole sweep is bounded by a hard deadline: probes that have not finished by then
+ * are cancelled and reported as timed out rather than holding up the scheduler.
+ */
+@Component
+public class HealthProbeEngine {
+
+    private final RestTemplate restTemplate;
+    private final Semaphore globalPermits;
+    private final int perHostConcurrency;
+    private final long sweepDeadlineMs;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer healthyProbes;
+    private final Timer unhealthyProbes;
+    private final Timer failedProbes;
+
+    public HealthProbeEngine(HttpTransport transport, MeterRegistry meterRegistry,
+                             @Value("${devops.health.max-concurrency:64}") int maxConcurrency,
+                             @Value("${devops.health.per-host-concurrency:4}") int perHostConcurrency,
+                             @Value("${devops.health.sweep-deadline-ms:25000}") long sweepDeadlineMs,
+                             @Value("${devops.health.read-timeout-ms:3000}") long readTimeoutMs) {
+        this.restTemplate = transport.restTemplate("health", Duration.ofMillis(readTimeoutMs));
+        this.healthyProbes = probeTimer(meterRegistry, "healthy");
+        this.unhealthyProbes = probeTimer(meterRegistry, "unhealthy");
+        this.failedProbes = probeTimer(meterRegistry, "error");
+        this.globalPermits = new Semaphore(maxConcurrency);
+        this.perHostConcurrency = perHostConcurrency;
+        this.sweepDeadlineMs = sweepDeadlineMs;
+    }
+
+    public record ProbeResult(boolean healthy, int statusCode, long latencyMs) {}
+
+    public record SweepResult(Map<String, ProbeResult> results, int timedOut, Duration duration) {}
+
+    /**
+     * Probes each URL once and waits for the results until the sweep deadline.
+     * URLs missing from {@link SweepResult#results()} did not complete in time.
+     */
+    public SweepResult probeAll(Collection<String> urls) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(sweepDeadlineMs);
+
+        Map<String, Future<ProbeResult>> futures = new LinkedHashMap<>();
+        for (String url : urls) {
+            futures.put(url, executor.submit(() -> probe(url, deadline)));
+        }
+
+        Map<String, ProbeResult> results = new HashMap<>();
+        int timedOut = 0;
+        for (Map.Entry<String, Future<ProbeResult>> entry : futures.entrySet()) {
+            Future<ProbeResult> future = entry.getValue();
+            try {
+                ProbeResult result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (result != null) {
+                    results.put(entry.getKey(), result);
+                } else {
+                    timedOut++;
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut++;
+            } catch (ExecutionException e) {
+                results.put(entry.getKey(), new ProbeResult(false, 0, 0));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(f -> f.cancel(true));
+                break;
+            }
+        }
+        // Hosts no longer probed (deleted deployments, URLs now owned by another node) drop their limiter
+        Set<String> hosts = urls.stream().map(HealthProbeEngine::hostOf).collect(Collectors.toSet());
+        hostPermits.keySet().retainAll(hosts);
+        return new SweepResult(results, timedOut, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private ProbeResult probe(String url, long deadline) throws InterruptedException {
+        // Take the host permit first so a probe queued behind a busy host does not hold a global slot
+        Semaphore hostLimit = hostPermits.computeIfAbsent(hostOf(url), host -> new Semaphore(perHostConcurrency));
+        if (!hostLimit.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) return null;
+        try {
+            if (!globalPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) return null;
+            try {
+                return execute(url);
+            } finally {
+                globalPermits.release();
+            }
+        } finally {
+            hostLimit.release();
+        }
+    }
+
+    private ProbeResult execute(String url) {
+        long started = System.nanoTime();
+        ProbeResult result;
+        try {
+            // Only the status line matters, so the body is never read into memory
+            int status = restTemplate.execute(url, HttpMethod.GET, null, response -> response.getStatusCode().value());
+            result = new ProbeResult(status >= 200 && status < 300, status, elapsedMs(started));
+        } catch (RestClientResponseException e) {
+            result = new ProbeResult(false, e.getStatusCode().value(), elapsedMs(started));
+        } catch (Exception e) {
+            result = new ProbeResult(false, 0, elapsedMs(started));
+        }
+        Timer timer = result.healthy() ? healthyProbes : result.statusCode() == 0 ? failedProbes : unhealthyProbes;
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private static Timer probeTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("health.probe")
+                .description("Latency of a single health probe")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static long elapsedMs(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
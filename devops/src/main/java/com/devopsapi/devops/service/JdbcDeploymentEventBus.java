@@ -0,0 +1,207 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.DeploymentEvent;
+import com.devopsapi.devops.model.DeploymentEventRecord;
+import com.devopsapi.devops.repository.DeploymentEventRecordRepository;
+import com.devopsapi.devops.util.LogSampler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Event bus over the shared database. Publishing delivers locally at once and appends a row to
+ * {@code deployment_event}; every node polls for rows after the last id it has seen and delivers
+ * those published elsewhere. Event ids are remembered in a bounded LRU so an event is delivered
+ * at most once per node, even when a row is read twice.
+ */
+@Component
+@ConditionalOnProperty(name = "devops.events.bus", havingValue = "jdbc")
+public class JdbcDeploymentEventBus implements DeploymentEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcDeploymentEventBus.class);
+    private static final LogSampler PUBLISH_ERROR_LOG = new LogSampler(Duration.ofSeconds(10));
+    private static final LogSampler POLL_ERROR_LOG = new LogSampler(Duration.ofSeconds(10));
+
+    // Ids skipped by a poll may belong to transactions still committing; they are re-checked this long
+    private static final long GAP_RECHECK_MS = 5000;
+    // Larger jumps are id allocation skips (e.g. after a restart), not rows still in flight
+    private static final long MAX_TRACKED_GAP = 100;
+
+    @Autowired
+    private DeploymentEventRecordRepository repository;
+
+    @Autowired
+    private ClusterMembership cluster;
+
+    @Value("${devops.events.poll-ms:200}")
+    private long pollMs;
+
+    @Value("${devops.events.retention-ms:300000}")
+    private long retentionMs;
+
+    private final List<Consumer<DeploymentEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<String, Boolean> delivered;
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong publishFailures = new AtomicLong();
+
+    private volatile long lastSeenId;
+    private ScheduledExecutorService poller;
+
+    public JdbcDeploymentEventBus(@Value("${devops.events.dedup-size:10000}") int dedupSize) {
+        this.delivered = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupSize;
+            }
+        });
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    }
+
+    @PostConstruct
+    public void start() {
+        // Only events published from now on are of interest to this node's sessions
+        lastSeenId = repository.findMaxId();
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-bus-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    @Override
+    public void publish(DeploymentEvent event) {
+        published.incrementAndGet();
+        try {
+            String payload = objectMapper.writeValueAsString(event.getPayload());
+            repository.save(new DeploymentEventRecord(event.getEventId(), event.getOriginNode(), event.getType(),
+                    event.getDeploymentId(), payload));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Local sessions still get the event; other nodes miss this one
+            publishFailures.incrementAndGet();
+            long dropped = PUBLISH_ERROR_LOG.sample();
+            if (dropped >= 0) {
+                log.error("Could not publish {} event to other nodes ({} similar suppressed): {}", event.getType(), dropped, e.getMessage());
+            }
+        }
+        deliver(event);
+    }
+
+    @Override
+    public void subscribe(Consumer<DeploymentEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    private void deliver(DeploymentEvent event) {
+        if (delivered.putIfAbsent(event.getEventId(), Boolean.TRUE) != null) {
+            duplicates.incrementAndGet();
+            return;
+        }
+        for (Consumer<DeploymentEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Error delivering {} event: {}", event.getType(), e.getMessage());
+            }
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            // Polls every few hundred ms; a database outage would otherwise log at that rate
+            long dropped = POLL_ERROR_LOG.sample();
+            if (dropped >= 0) {
+                log.warn("Error polling deployment events ({} similar suppressed): {}", dropped, e.getMessage());
+            }
+        }
+    }
+
+    private void poll() throws JsonProcessingException {
+        List<DeploymentEventRecord> rows = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            long now = System.currentTimeMillis();
+            gaps.values().removeIf(expiresAt -> expiresAt < now);
+            List<DeploymentEventRecord> late = repository.findAllById(List.copyOf(gaps.keySet()));
+            late.forEach(row -> gaps.remove(row.getId()));
+            rows.addAll(late);
+        }
+
+        long expected = lastSeenId + 1;
+        for (DeploymentEventRecord row : repository.findTop500ByIdGreaterThanOrderById(lastSeenId)) {
+            if (row.getId() - expected <= MAX_TRACKED_GAP) {
+                for (long missing = expected; missing < row.getId(); missing++) {
+                    gaps.put(missing, System.currentTimeMillis() + GAP_RECHECK_MS);
+                }
+            }
+            expected = row.getId() + 1;
+            lastSeenId = row.getId();
+            rows.add(row);
+        }
+
+        for (DeploymentEventRecord row : rows) {
+            // Our own events were delivered when they were published
+            if (cluster.getNodeId().equals(row.getOriginNode())) continue;
+            received.incrementAndGet();
+            Object payload = row.getPayload() != null ? objectMapper.readValue(row.getPayload(), Object.class) : null;
+            deliver(new DeploymentEvent(row.getEventId(), row.getOriginNode(), row.getType(), row.getDeploymentId(), payload));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeOldEvents() {
+        repository.deleteOlderThan(LocalDateTime.now().minusNanos(retentionMs * 1_000_000));
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("bus", "jdbc");
+        stats.put("nodeId", cluster.getNodeId());
+        stats.put("lastSeenId", lastSeenId);
+        stats.put("published", published.get());
+        stats.put("publishFailures", publishFailures.get());
+        stats.put("received", received.get());
+        stats.put("duplicatesDropped", duplicates.get());
+        stats.put("pendingGaps", gaps.size());
+        return stats;
+    }
+}
@@ -0,0 +1,40 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.DeploymentEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/** Delivers events straight to this JVM's subscribers; enough for a single node. */
+@Component
+@ConditionalOnProperty(name = "devops.events.bus", havingValue = "local", matchIfMissing = true)
+public class LocalDeploymentEventBus implements DeploymentEventBus {
+
+    private final List<Consumer<DeploymentEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong published = new AtomicLong();
+
+    @Override
+    public void publish(DeploymentEvent event) {
+        published.incrementAndGet();
+        subscribers.forEach(subscriber -> subscriber.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<DeploymentEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("bus", "local");
+        stats.put("published", published.get());
+        return stats;
+    }
+}
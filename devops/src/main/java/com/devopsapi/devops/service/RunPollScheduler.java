@@ -0,0 +1,132 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.repository.DeploymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when each active deployment's run is next polled. Polls start frequent right after a
+ * dispatch and back off exponentially; a webhook for the deployment pushes its next poll out a
+ * full interval, since the webhook already told us what a poll would.
+ */
+@Component
+public class RunPollScheduler {
+
+    @Autowired
+    private DeploymentRepository deploymentRepository;
+
+    @Autowired
+    private GitHubRequestScheduler requestScheduler;
+
+    @Autowired
+    private ClusterMembership cluster;
+
+    @Value("${devops.github.poll.initial-interval-ms:5000}")
+    private long initialIntervalMs;
+
+    @Value("${devops.github.poll.max-interval-ms:300000}")
+    private long maxIntervalMs;
+
+    private static final class PollEntry {
+        final Long deploymentId;
+        long nextPollAt;
+        long intervalMs;
+
+        PollEntry(Long deploymentId, long nextPollAt, long intervalMs) {
+            this.deploymentId = deploymentId;
+            this.nextPollAt = nextPollAt;
+            this.intervalMs = intervalMs;
+        }
+    }
+
+    // Entries are removed and re-added whenever nextPollAt changes, so heap order stays valid
+    private final PriorityQueue<PollEntry> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.nextPollAt));
+    private final Map<Long, PollEntry> entries = new HashMap<>();
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /** Starts (or restarts) fast polling, e.g. right after a workflow dispatch. */
+    public synchronized void schedule(Long deploymentId) {
+        PollEntry entry = entries.get(deploymentId);
+        if (entry != null) queue.remove(entry);
+        entry = new PollEntry(deploymentId, System.currentTimeMillis() + initialIntervalMs, initialIntervalMs);
+        entries.put(deploymentId, entry);
+        queue.add(entry);
+    }
+
+    /** Tracks the deployment if it is not already tracked, keeping any existing schedule. */
+    public synchronized void track(Long deploymentId) {
+        if (!entries.containsKey(deploymentId)) schedule(deploymentId);
+    }
+
+    /** A webhook just reported on this deployment, so the next poll can wait a full interval. */
+    public synchronized void recordWebhook(Long deploymentId) {
+        PollEntry entry = entries.get(deploymentId);
+        if (entry == null) return;
+        long deferred = System.currentTimeMillis() + entry.intervalMs;
+        if (deferred > entry.nextPollAt) {
+            queue.remove(entry);
+            entry.nextPollAt = deferred;
+            queue.add(entry);
+            suppressed.incrementAndGet();
+        }
+    }
+
+    /** Stops polling, e.g. once the deployment has reached a terminal status. */
+    public synchronized void complete(Long deploymentId) {
+        PollEntry entry = entries.remove(deploymentId);
+        if (entry != null) queue.remove(entry);
+    }
+
+    /**
+     * Returns deployments whose poll is due and schedules their next poll with a doubled interval,
+     * stretched further when the GitHub budget is running low.
+     */
+    public synchronized List<Long> takeDue() {
+        long now = System.currentTimeMillis();
+        int budgetMultiplier = requestScheduler.pollIntervalMultiplier();
+        List<Long> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().nextPollAt <= now) {
+            PollEntry entry = queue.poll();
+            due.add(entry.deploymentId);
+            entry.intervalMs = Math.min(maxIntervalMs, entry.intervalMs * 2);
+            entry.nextPollAt = now + entry.intervalMs * budgetMultiplier;
+            queue.add(entry);
+        }
+        polls.addAndGet(due.size());
+        return due;
+    }
+
+    // Picks up active deployments we are not tracking yet: after a restart, or when this node
+    // takes over a repository from another one. Runs for repositories owned elsewhere are left alone.
+    @Scheduled(fixedDelayString = "${devops.github.poll.reconcile-ms:60000}")
+    public void reconcile() {
+        for (Deployment.DeploymentStatus status : List.of(Deployment.DeploymentStatus.PENDING, Deployment.DeploymentStatus.IN_PROGRESS)) {
+            deploymentRepository.findByStatus(status).stream()
+                    .filter(deployment -> deployment.getRepositoryKey() != null && cluster.owns(deployment.getRepositoryKey()))
+                    .forEach(deployment -> track(deployment.getId()));
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracked", entries.size());
+        stats.put("nextPollInMs", queue.isEmpty() ? null : Math.max(0, queue.peek().nextPollAt - System.currentTimeMillis()));
+        stats.put("polls", polls.get());
+        stats.put("suppressedByWebhook", suppressed.get());
+        return stats;
+    }
+}
@@ -0,0 +1,56 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.AppSetting;
+import com.devopsapi.devops.repository.AppSettingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of {@link AppSetting} rows. The table is tiny, so it is loaded whole and hot
+ * paths read from memory; writes go through {@link #put} which updates the database and the cache.
+ */
+@Service
+public class SettingsService {
+
+    @Autowired
+    private AppSettingRepository appSettingRepository;
+
+    private volatile Map<String, String> settings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    // Picks up changes written by other instances
+    @Scheduled(fixedDelayString = "${devops.settings.refresh-ms:60000}", initialDelayString = "${devops.settings.refresh-ms:60000}")
+    public synchronized void refresh() {
+        Map<String, String> loaded = new ConcurrentHashMap<>();
+        appSettingRepository.findAll().forEach(setting -> {
+            if (setting.getValue() != null) loaded.put(setting.getKey(), setting.getValue());
+        });
+        settings = loaded;
+    }
+
+    /** Returns the setting if it is present and non-empty. */
+    public Optional<String> get(String key) {
+        return Optional.ofNullable(settings.get(key)).filter(value -> !value.isEmpty());
+    }
+
+    public Map<String, String> getAll() {
+        return Map.copyOf(settings);
+    }
+
+    public synchronized void put(String key, String value) {
+        AppSetting setting = appSettingRepository.findById(key).orElse(new AppSetting(key, ""));
+        setting.setValue(value);
+        appSettingRepository.save(setting);
+        settings.put(key, value);
+    }
+}
@@ -0,0 +1,173 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.WebhookDelivery;
+import com.devopsapi.devops.repository.WebhookDeliveryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers recent {@code X-GitHub-Delivery} ids so redelivered webhooks are acknowledged
+ * without being processed again. Ids live in a bounded in-memory window that evicts the
+ * oldest first. With persistence enabled, an id this node has not seen is claimed with a
+ * primary-key insert into {@code webhook_delivery}, so a redelivery that lands on another
+ * node is recognised too.
+ */
+@Service
+public class WebhookDeliveryTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookDeliveryTracker.class);
+
+    // Matches the webhook_delivery.delivery_id column; longer ids are only tracked in memory
+    private static final int MAX_PERSISTED_ID_LENGTH = 64;
+
+    @Autowired
+    private WebhookDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${devops.webhooks.dedup.window-ms:86400000}")
+    private long windowMs;
+
+    @Value("${devops.webhooks.dedup.persist:true}")
+    private boolean persist;
+
+    private final int maxSize;
+    // Delivery id -> expiry; every id gets the same window, so insertion order is expiry order
+    private final LinkedHashMap<String, Long> recent = new LinkedHashMap<>();
+    private final AtomicLong duplicatesSkipped = new AtomicLong();
+    private final AtomicLong remoteDuplicates = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong persistFailures = new AtomicLong();
+
+    public WebhookDeliveryTracker(@Value("${devops.webhooks.dedup.max-size:100000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!persist) return;
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(windowMs));
+        synchronized (recent) {
+            for (WebhookDelivery delivery : deliveryRepository.findReceivedSince(cutoff)) {
+                long receivedAt = delivery.getReceivedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                remember(delivery.getDeliveryId(), receivedAt + windowMs);
+            }
+        }
+    }
+
+    /** Records the delivery id; returns false if it was already seen within the window, here or on another node. */
+    public boolean markIfNew(String deliveryId) {
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            purgeExpired(now);
+            if (recent.containsKey(deliveryId)) {
+                duplicatesSkipped.incrementAndGet();
+                return false;
+            }
+            remember(deliveryId, now + windowMs);
+        }
+        if (persist && deliveryId.length() <= MAX_PERSISTED_ID_LENGTH && !claim(deliveryId, now)) {
+            remoteDuplicates.incrementAndGet();
+            duplicatesSkipped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /** Forgets a delivery that was not processed, so GitHub's retry or a manual replay is. */
+    public void unmark(String deliveryId) {
+        synchronized (recent) {
+            recent.remove(deliveryId);
+        }
+        if (persist) {
+            try {
+                jdbcTemplate.update("DELETE FROM webhook_delivery WHERE delivery_id = ?", deliveryId);
+            } catch (DataAccessException e) {
+                persistFailures.incrementAndGet();
+                log.warn("Could not release webhook delivery {}: {}", deliveryId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The primary key is the cross-node check: the first insert wins. A row older than the
+     * window that the hourly purge has not removed yet is taken over instead. If the database
+     * is unreachable the delivery is processed, as it would be without persistence.
+     */
+    private boolean claim(String deliveryId, long nowMillis) {
+        Timestamp receivedAt = new Timestamp(nowMillis);
+        try {
+            jdbcTemplate.update("INSERT INTO webhook_delivery (delivery_id, received_at) VALUES (?, ?)", deliveryId, receivedAt);
+            persisted.incrementAndGet();
+            return true;
+        } catch (DataIntegrityViolationException duplicate) {
+            Timestamp cutoff = new Timestamp(nowMillis - windowMs);
+            return jdbcTemplate.update("UPDATE webhook_delivery SET received_at = ? WHERE delivery_id = ? AND received_at < ?",
+                    receivedAt, deliveryId, cutoff) == 1;
+        } catch (DataAccessException e) {
+            persistFailures.incrementAndGet();
+            log.warn("Could not record webhook delivery {}: {}", deliveryId, e.getMessage());
+            return true;
+        }
+    }
+
+    // Caller holds the lock on recent
+    private void remember(String deliveryId, long expiresAt) {
+        recent.remove(deliveryId);
+        recent.put(deliveryId, expiresAt);
+        Iterator<Long> oldest = recent.values().iterator();
+        while (recent.size() > maxSize && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    // Caller holds the lock on recent
+    private void purgeExpired(long now) {
+        Iterator<Long> oldest = recent.values().iterator();
+        while (oldest.hasNext() && oldest.next() <= now) {
+            oldest.remove();
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeExpired() {
+        synchronized (recent) {
+            purgeExpired(System.currentTimeMillis());
+        }
+        if (persist) {
+            deliveryRepository.deleteOlderThan(LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(windowMs)));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (recent) {
+            stats.put("tracked", recent.size());
+        }
+        stats.put("duplicatesSkipped", duplicatesSkipped.get());
+        stats.put("remoteDuplicates", remoteDuplicates.get());
+        stats.put("persisted", persisted.get());
+        stats.put("persistFailures", persistFailures.get());
+        stats.put("persistence", persist);
+        return stats;
+    }
+}
@@ -0,0 +1,301 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.RepositoryKey;
+import com.devopsapi.devops.repository.DeploymentRepository;
+import com.devopsapi.devops.util.LogSampler;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Decouples webhook delivery from processing. The controller only verifies and enqueues;
+ * a single worker drains the bounded queue in batches, collapses events for the same
+ * workflow run and hands the resulting changes to {@link DeploymentWriteBehind}, which
+ * writes them in its next batched flush.
+ */
+@Service
+public class WebhookIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookIngestionService.class);
+    private static final LogSampler PARSE_ERROR_LOG = new LogSampler(Duration.ofSeconds(10));
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Autowired
+    private DeploymentRepository deploymentRepository;
+
+    @Autowired
+    private DeploymentWriteBehind writeBehind;
+
+    @Autowired
+    private WebhookDeliveryTracker deliveryTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RunPollScheduler runPollScheduler;
+
+    private final BlockingQueue<QueuedEvent> queue;
+    private final int batchSize;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastBatchLagMs;
+    private volatile int lastBatchSize;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    public WebhookIngestionService(@Value("${devops.webhooks.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${devops.webhooks.batch-size:200}") int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    private record QueuedEvent(byte[] payload, String deliveryId, long receivedAt) {}
+
+    record RunUpdate(String repositoryKey, long runId, String status, String conclusion, long receivedAt) {}
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("webhook-ingest").daemon().start(this::drainLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queues a verified {@code workflow_run} payload. Returns false when the queue is full,
+     * in which case the caller should ask GitHub to retry. {@code deliveryId} may be null.
+     */
+    public boolean enqueue(byte[] payload, String deliveryId) {
+        if (queue.offer(new QueuedEvent(payload, deliveryId, System.currentTimeMillis()))) {
+            accepted.incrementAndGet();
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        QueuedEvent oldest = queue.peek();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        stats.put("oldestEventAgeMs", oldest != null ? System.currentTimeMillis() - oldest.receivedAt() : 0);
+        stats.put("lastBatchLagMs", lastBatchLagMs);
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("accepted", accepted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("applied", applied.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        // Keep draining after shutdown starts so already-acknowledged events are not lost
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                applyBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failed.addAndGet(batch.size());
+                // These events were acknowledged but not applied; let a redelivery or manual replay through
+                batch.stream().map(QueuedEvent::deliveryId).filter(Objects::nonNull).forEach(deliveryTracker::unmark);
+                log.error("Webhook batch of {} failed: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Parsing is timed per event inside coalesce; apply is timed per batch
+    private void applyBatch(List<QueuedEvent> batch) {
+        Collection<RunUpdate> updates = coalesce(batch);
+        if (!updates.isEmpty()) {
+            meterRegistry.timer("webhook.apply").record(() -> apply(updates));
+        }
+
+        long now = System.currentTimeMillis();
+        lastBatchLagMs = now - batch.get(0).receivedAt();
+        lastBatchSize = batch.size();
+        applied.addAndGet(batch.size());
+    }
+
+    /**
+     * Keeps one update per workflow run. A later event wins unless it would move the run
+     * backwards (GitHub does not guarantee delivery order), and the surviving updates
+     * keep the arrival order of their latest event.
+     */
+    private Collection<RunUpdate> coalesce(List<QueuedEvent> batch) {
+        Map<String, RunUpdate> byRun = new LinkedHashMap<>();
+        for (QueuedEvent event : batch) {
+            RunUpdate update = parse(event);
+            if (update == null) continue;
+            String key = update.runId() != 0 ? update.repositoryKey() + "#" + update.runId() : update.repositoryKey() + "@" + event.receivedAt();
+            RunUpdate existing = byRun.remove(key);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                if (progressRank(update.status()) < progressRank(existing.status())) {
+                    update = existing;
+                }
+            }
+            byRun.put(key, update);
+        }
+        return byRun.values();
+    }
+
+    // Changes go through the write-behind buffer, which broadcasts them once they are committed
+    private void apply(Collection<RunUpdate> updates) {
+        List<String> keys = updates.stream().map(RunUpdate::repositoryKey).distinct().toList();
+        List<Deployment> deployments = deploymentRepository.findByRepositoryKeyIn(keys);
+        writeBehind.overlay(deployments);
+        Map<String, List<Deployment>> byRepository = deployments.stream()
+                .collect(Collectors.groupingBy(Deployment::getRepositoryKey));
+
+        for (RunUpdate update : updates) {
+            // Update ALL deployments for this repository
+            for (Deployment deployment : byRepository.getOrDefault(update.repositoryKey(), List.of())) {
+                Deployment.DeploymentStatus newStatus = toDeploymentStatus(update.status(), update.conclusion());
+                trackPolling(deployment.getId(), newStatus);
+                boolean runChanged = update.runId() != 0 && !Long.valueOf(update.runId()).equals(deployment.getWorkflowRunId());
+                if (runChanged || newStatus != deployment.getStatus()) {
+                    if (update.runId() != 0) {
+                        deployment.setWorkflowRunId(update.runId());
+                    }
+                    deployment.setStatus(newStatus);
+                    writeBehind.submit(deployment, DeploymentWriteBehind.Field.STATUS, DeploymentWriteBehind.Field.RUN_ID);
+                }
+            }
+        }
+    }
+
+    // The webhook already told us what a poll would; stop polling runs that have finished
+    private void trackPolling(Long deploymentId, Deployment.DeploymentStatus status) {
+        if (status == Deployment.DeploymentStatus.COMPLETED || status == Deployment.DeploymentStatus.FAILED) {
+            runPollScheduler.complete(deploymentId);
+        } else {
+            runPollScheduler.track(deploymentId);
+            runPollScheduler.recordWebhook(deploymentId);
+        }
+    }
+
+    private RunUpdate parse(QueuedEvent event) {
+        try {
+            return meterRegistry.timer("webhook.parse").recordCallable(() -> extract(event.payload(), event.receivedAt()));
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            long dropped = PARSE_ERROR_LOG.sample();
+            if (dropped >= 0) {
+                log.warn("Webhook payload could not be parsed ({} similar suppressed): {}", dropped, e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Pulls the five fields we use out of a workflow_run payload without building a tree. Only
+     * scalars directly under the top-level {@code repository} and {@code workflow_run} objects are
+     * read; everything nested (head_commit, the run's own repository copy, ...) is skipped, and
+     * parsing stops once both objects have been seen.
+     */
+    static RunUpdate extract(byte[] payload, long receivedAt) throws IOException {
+        String fullName = null;
+        String htmlUrl = null;
+        long runId = 0;
+        String status = null;
+        String conclusion = null;
+        boolean seenRepository = false;
+        boolean seenRun = false;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            while (!(seenRepository && seenRun) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                JsonToken value = parser.nextToken();
+                boolean isRepository = "repository".equals(section);
+                boolean isRun = "workflow_run".equals(section);
+                if (value != JsonToken.START_OBJECT || !(isRepository || isRun)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if (token.isStructStart()) {
+                        parser.skipChildren();
+                    } else if (isRepository) {
+                        if ("full_name".equals(field)) fullName = parser.getValueAsString();
+                        else if ("html_url".equals(field)) htmlUrl = parser.getValueAsString();
+                    } else {
+                        if ("id".equals(field)) runId = parser.getValueAsLong();
+                        else if ("status".equals(field)) status = parser.getValueAsString();
+                        else if ("conclusion".equals(field)) conclusion = parser.getValueAsString();
+                    }
+                }
+                seenRepository |= isRepository;
+                seenRun |= isRun;
+            }
+        }
+
+        String repoKey = fullName != null ? fullName.toLowerCase(Locale.ROOT) : RepositoryKey.of(htmlUrl);
+        if (repoKey == null) return null;
+        return new RunUpdate(repoKey, runId, status, conclusion, receivedAt);
+    }
+
+    private static int progressRank(String githubStatus) {
+        if ("completed".equals(githubStatus)) return 2;
+        if ("in_progress".equals(githubStatus)) return 1;
+        return 0;
+    }
+
+    static Deployment.DeploymentStatus toDeploymentStatus(String githubStatus, String conclusion) {
+        if ("completed".equals(githubStatus)) {
+            return "success".equals(conclusion) ?
+                   Deployment.DeploymentStatus.COMPLETED :
+                   Deployment.DeploymentStatus.FAILED;
+        } else if ("in_progress".equals(githubStatus)) {
+            return Deployment.DeploymentStatus.IN_PROGRESS;
+        }
+        return Deployment.DeploymentStatus.PENDING;
+    }
+}
@@ -0,0 +1,24 @@
+package com.devopsapi.devops.service;
+
+/**
+ * Thrown when a workflow dispatch fails. {@link #isRetryable()} tells the dispatcher whether
+ * trying again later can help (rate limits, GitHub outages) or not (bad repository, no workflow).
+ */
+public class WorkflowDispatchException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public WorkflowDispatchException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public WorkflowDispatchException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,176 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.DeploymentWebSocketController;
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DispatchOutbox;
+import com.devopsapi.devops.repository.DeploymentRepository;
+import com.devopsapi.devops.repository.DispatchOutboxRepository;
+import com.devopsapi.devops.util.LogSampler;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transactional outbox for GitHub workflow dispatches. Creating a deployment only writes the
+ * deployment and its outbox row; dispatching happens on virtual threads with retries and
+ * exponential backoff, and every state change is pushed to WebSocket clients.
+ */
+@Service
+public class WorkflowDispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkflowDispatchService.class);
+    private static final LogSampler POLL_ERROR_LOG = new LogSampler(Duration.ofSeconds(10));
+
+    @Autowired
+    private DeploymentRepository deploymentRepository;
+
+    @Autowired
+    private DispatchOutboxRepository outboxRepository;
+
+    @Autowired
+    private GitHubService gitHubService;
+
+    @Autowired
+    private DeploymentWebSocketController webSocketController;
+
+    @Autowired
+    private RunPollScheduler runPollScheduler;
+
+    @Autowired
+    private DeploymentWriteBehind writeBehind;
+
+    @Value("${devops.dispatch.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${devops.dispatch.base-backoff-ms:2000}")
+    private long baseBackoffMs;
+
+    @Value("${devops.dispatch.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${devops.dispatch.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Saves the deployment and its dispatch intent atomically. The dispatcher is woken once the
+     * transaction commits, so the dispatch normally starts within milliseconds.
+     */
+    @Transactional
+    public Deployment createDeployment(Deployment deployment) {
+        Deployment saved = deploymentRepository.save(deployment);
+        outboxRepository.save(new DispatchOutbox(saved.getId()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                executor.execute(WorkflowDispatchService.this::dispatchDue);
+            }
+        });
+        return saved;
+    }
+
+    @Scheduled(fixedDelayString = "${devops.dispatch.poll-ms:1000}")
+    public void dispatchDue() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.releaseStaleClaims(now.minusNanos(claimTimeoutMs * 1_000_000),
+                    DispatchOutbox.DispatchState.PENDING, DispatchOutbox.DispatchState.IN_FLIGHT);
+
+            List<DispatchOutbox> due = outboxRepository.findTop50ByStateAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                    DispatchOutbox.DispatchState.PENDING, now);
+            for (DispatchOutbox entry : due) {
+                // Concurrent sweeps (timer, post-commit wake-up, other nodes) race on the claim; one wins
+                if (outboxRepository.claim(entry.getId(), now, DispatchOutbox.DispatchState.PENDING, DispatchOutbox.DispatchState.IN_FLIGHT) == 1) {
+                    entry.setState(DispatchOutbox.DispatchState.IN_FLIGHT);
+                    entry.setClaimedAt(now);
+                    executor.execute(() -> process(entry));
+                }
+            }
+        } catch (Exception e) {
+            long dropped = POLL_ERROR_LOG.sample();
+            if (dropped >= 0) {
+                log.warn("Error polling dispatch outbox ({} similar suppressed): {}", dropped, e.getMessage());
+            }
+        }
+    }
+
+    // Dispatched rows are only an audit trail once done; failed ones are kept for inspection
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeDispatched() {
+        outboxRepository.deleteFinished(DispatchOutbox.DispatchState.DISPATCHED, LocalDateTime.now().minusDays(7));
+    }
+
+    private void process(DispatchOutbox entry) {
+        Deployment deployment = deploymentRepository.findById(entry.getDeploymentId()).orElse(null);
+        if (deployment == null) {
+            // Deleted before it was dispatched; nothing left to do
+            outboxRepository.delete(entry);
+            return;
+        }
+
+        webSocketController.notifyDispatchState(entry);
+        entry.setAttempts(entry.getAttempts() + 1);
+        try {
+            gitHubService.triggerWorkflow(deployment);
+            entry.setState(DispatchOutbox.DispatchState.DISPATCHED);
+            entry.setLastError(null);
+            // The run appears within seconds; poll it fast until a webhook or the run itself says otherwise
+            runPollScheduler.schedule(deployment.getId());
+        } catch (WorkflowDispatchException e) {
+            entry.setLastError(truncate(e.getMessage()));
+            if (e.isRetryable() && entry.getAttempts() < maxAttempts) {
+                entry.setState(DispatchOutbox.DispatchState.PENDING);
+                entry.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(entry.getAttempts()) * 1_000_000));
+            } else {
+                entry.setState(DispatchOutbox.DispatchState.FAILED);
+            }
+            log.warn("Dispatch attempt {} for deployment {} failed: {}", entry.getAttempts(), deployment.getId(), e.getMessage());
+        } catch (Exception e) {
+            // Unexpected; keep the entry alive and let the next attempt decide
+            entry.setLastError(truncate(e.getMessage()));
+            entry.setState(entry.getAttempts() < maxAttempts ? DispatchOutbox.DispatchState.PENDING : DispatchOutbox.DispatchState.FAILED);
+            entry.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(entry.getAttempts()) * 1_000_000));
+        }
+
+        outboxRepository.save(entry);
+        webSocketController.notifyDispatchState(entry);
+
+        if (entry.getState() == DispatchOutbox.DispatchState.FAILED) {
+            // The workflow will never run, so the deployment cannot progress; queued behind any
+            // pending status write so that one cannot overwrite it, and broadcast once flushed
+            deployment.setStatus(Deployment.DeploymentStatus.FAILED);
+            writeBehind.submit(deployment, DeploymentWriteBehind.Field.STATUS);
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts - 1, 20));
+        // Jitter so a burst of failures does not retry in lockstep
+        return backoff + ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,111 @@
+package com.devopsapi.devops.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches which workflow to dispatch for each repository so a deployment is a single POST.
+ * Entries are refreshed in the background before they go stale and dropped when GitHub
+ * answers a dispatch with 404. Repositories nobody has deployed to for a while are forgotten.
+ */
+@Component
+public class WorkflowRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkflowRegistry.class);
+
+    @Value("${devops.github.workflows.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${devops.github.workflows.idle-ms:3600000}")
+    private long idleMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Supplied by GitHubService: returns the "workflows" array of GET actions/workflows
+    private volatile WorkflowLoader loader;
+
+    @FunctionalInterface
+    public interface WorkflowLoader {
+        List<Map<String, Object>> load(String ownerRepo, boolean background);
+    }
+
+    private static final class Entry {
+        final String ownerRepo;
+        final String workflowId;
+        final long loadedAt;
+        volatile long lastUsedAt;
+
+        Entry(String ownerRepo, String workflowId, long loadedAt) {
+            this.ownerRepo = ownerRepo;
+            this.workflowId = workflowId;
+            this.loadedAt = loadedAt;
+            this.lastUsedAt = loadedAt;
+        }
+    }
+
+    public void setLoader(WorkflowLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the workflow to dispatch. A named workflow file is used as-is, since GitHub accepts the
+     * file name wherever it accepts a workflow id; otherwise the repository's first active workflow.
+     * Returns null if the repository has no workflows.
+     */
+    public String resolve(String ownerRepo, String workflowFile) {
+        if (workflowFile != null && !workflowFile.isBlank()) return workflowFile;
+
+        String key = ownerRepo.toLowerCase(Locale.ROOT);
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        // Past twice the TTL the background refresh has clearly not kept up, so reload inline
+        if (entry == null || now - entry.loadedAt > 2 * ttlMs) {
+            entry = load(ownerRepo, false);
+        }
+        entry.lastUsedAt = now;
+        return entry.workflowId;
+    }
+
+    public void invalidate(String ownerRepo) {
+        entries.remove(ownerRepo.toLowerCase(Locale.ROOT));
+    }
+
+    @Scheduled(fixedDelayString = "${devops.github.workflows.refresh-ms:60000}")
+    public void refreshStaleEntries() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now - entry.lastUsedAt > idleMs);
+        for (Entry entry : entries.values()) {
+            if (now - entry.loadedAt > ttlMs * 3 / 4) {
+                try {
+                    load(entry.ownerRepo, true).lastUsedAt = entry.lastUsedAt;
+                } catch (Exception e) {
+                    log.warn("Error refreshing workflows for {}: {}", entry.ownerRepo, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Entry load(String ownerRepo, boolean background) {
+        List<Map<String, Object>> workflows = loader.load(ownerRepo, background);
+        String workflowId = null;
+        if (workflows != null) {
+            workflowId = workflows.stream()
+                    .filter(workflow -> "active".equals(workflow.get("state")))
+                    .findFirst()
+                    .or(() -> workflows.stream().findFirst())
+                    .map(workflow -> String.valueOf(workflow.get("id")))
+                    .orElse(null);
+        }
+        Entry entry = new Entry(ownerRepo, workflowId, System.currentTimeMillis());
+        entries.put(ownerRepo.toLowerCase(Locale.ROOT), entry);
+        return entry;
+    }
+}
@@ -0,0 +1,36 @@
+package com.devopsapi.devops.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-limits a log statement that can fire in storms (rejected webhooks, failing pollers).
+ * At most one occurrence per interval is let through, and it reports how many were dropped
+ * since the previous one:
+ * <pre>
+ * long dropped = sampler.sample();
+ * if (dropped >= 0) log.warn("Queue full ({} similar suppressed)", dropped);
+ * </pre>
+ */
+public final class LogSampler {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowedAt;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        this.nextAllowedAt = new AtomicLong(System.nanoTime() - intervalNanos);
+    }
+
+    /** Returns -1 if this occurrence should not be logged, otherwise the number dropped before it. */
+    public long sample() {
+        long now = System.nanoTime();
+        long next = nextAllowedAt.get();
+        if (now - next >= 0 && nextAllowedAt.compareAndSet(next, now + intervalNanos)) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,67 @@
+package com.devopsapi.devops.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Logback appender that keeps the most recent log events in memory so they can be read back
+ * through the admin API. Appending is a slot write in a fixed array; older events are
+ * overwritten. Configured in {@code logback-spring.xml}; the active instance is published
+ * through {@link #current()}.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public record LogEntry(Instant timestamp, String level, String logger, String thread, String message) {}
+
+    private static volatile RingBufferAppender current;
+
+    private int capacity = 1000;
+    private AtomicReferenceArray<LogEntry> slots;
+    private final AtomicLong written = new AtomicLong();
+
+    public static RingBufferAppender current() {
+        return current;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void start() {
+        slots = new AtomicReferenceArray<>(capacity);
+        super.start();
+        current = this;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        long sequence = written.getAndIncrement();
+        slots.set((int) (sequence % capacity), new LogEntry(Instant.ofEpochMilli(event.getTimeStamp()),
+                event.getLevel().toString(), event.getLoggerName(), event.getThreadName(), event.getFormattedMessage()));
+    }
+
+    /** Up to {@code limit} newest events at or above {@code minLevel}, newest first. */
+    public List<LogEntry> recent(int limit, Level minLevel) {
+        List<LogEntry> entries = new ArrayList<>(Math.min(limit, capacity));
+        long newest = written.get() - 1;
+        for (long sequence = newest; sequence >= 0 && sequence > newest - capacity && entries.size() < limit; sequence--) {
+            LogEntry entry = slots.get((int) (sequence % capacity));
+            if (entry != null && Level.toLevel(entry.level()).isGreaterOrEqual(minLevel)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+}
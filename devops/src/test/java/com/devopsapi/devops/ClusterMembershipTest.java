@@ -0,0 +1,68 @@
+package com.devopsapi.devops;
+
+import com.devopsapi.devops.service.ClusterMembership;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts two full application contexts against one shared in-memory H2 database and checks
+ * that they split work keys between them and rebalance when a node leaves.
+ */
+public class ClusterMembershipTest {
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    private ClusterMembership startNode(String nodeId) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DevopsApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "server.port=0",
+                        "devops.cluster.node-id=" + nodeId,
+                        // Heartbeats are driven by the test
+                        "devops.cluster.heartbeat-ms=3600000")
+                .run();
+        contexts.add(context);
+        return context.getBean(ClusterMembership.class);
+    }
+
+    @Test
+    void testNodesSplitKeysAndRebalanceOnLeave() {
+        ClusterMembership nodeA = startNode("node-a");
+        assertThat(nodeA.owns("github.com/acme/api")).isTrue();
+
+        ClusterMembership nodeB = startNode("node-b");
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+
+        int ownedByA = 0;
+        int ownedByB = 0;
+        for (int i = 0; i < 1000; i++) {
+            String key = "acme/service-" + i;
+            assertThat(nodeA.ownerOf(key)).isEqualTo(nodeB.ownerOf(key));
+            assertThat(nodeA.owns(key)).isNotEqualTo(nodeB.owns(key));
+            if (nodeA.owns(key)) ownedByA++;
+            if (nodeB.owns(key)) ownedByB++;
+        }
+        assertThat(ownedByA).isGreaterThan(200);
+        assertThat(ownedByB).isGreaterThan(200);
+
+        contexts.remove(1).close();
+        nodeA.heartbeat();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(nodeA.owns("acme/service-" + i)).isTrue();
+        }
+    }
+}
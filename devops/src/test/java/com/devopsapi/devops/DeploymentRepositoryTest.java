@@ -1,6 +1,9 @@
 package com.devopsapi.devops;
 
 import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentCursor;
+import com.devopsapi.devops.model.DeploymentSummary;
+import com.devopsapi.devops.model.RepositoryKey;
 import com.devopsapi.devops.repository.DeploymentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,6 +91,73 @@ public class DeploymentRepositoryTest {
         assertThat(foundDeployment).isNotPresent();
     }
 
+    @Test
+    void testFindByStatus() {
+        deploymentRepository.save(new Deployment("Running", "Desc", "http://github.com/test/repo", "main", Deployment.DeploymentStatus.IN_PROGRESS));
+        deploymentRepository.save(new Deployment("Done", "Desc", "http://github.com/test/repo", "main", Deployment.DeploymentStatus.COMPLETED));
+
+        List<Deployment> inProgress = deploymentRepository.findByStatus(Deployment.DeploymentStatus.IN_PROGRESS);
+
+        assertThat(inProgress).extracting(Deployment::getName).containsExactly("Running");
+    }
+
+    @Test
+    void testFindAllWithServiceUrl() {
+        deploymentRepository.save(new Deployment("With URL", "Desc", "http://github.com/test/repo", "main", "http://service/health", Deployment.DeploymentStatus.COMPLETED));
+        deploymentRepository.save(new Deployment("Empty URL", "Desc", "http://github.com/test/repo", "main", "", Deployment.DeploymentStatus.COMPLETED));
+        deploymentRepository.save(new Deployment("No URL", "Desc", "http://github.com/test/repo", "main", Deployment.DeploymentStatus.COMPLETED));
+
+        List<Deployment> withUrl = deploymentRepository.findAllWithServiceUrl();
+
+        assertThat(withUrl).extracting(Deployment::getName).containsExactly("With URL");
+    }
+
+    @Test
+    void testFindByRepositoryKey() {
+        deploymentRepository.save(new Deployment("Repo 1", "Desc", "https://github.com/Test/Repo1/", "main", Deployment.DeploymentStatus.PENDING));
+        deploymentRepository.save(new Deployment("Repo 1 again", "Desc", "https://github.com/test/repo1", "develop", Deployment.DeploymentStatus.PENDING));
+        deploymentRepository.save(new Deployment("Repo 2", "Desc", "https://github.com/test/repo2", "main", Deployment.DeploymentStatus.PENDING));
+
+        List<Deployment> found = deploymentRepository.findByRepositoryKey("test/repo1");
+
+        assertThat(found).extracting(Deployment::getName).containsExactlyInAnyOrder("Repo 1", "Repo 1 again");
+    }
+
+    @Test
+    void testRepositoryKeyKeepsDottedNamesAndDropsGitSuffix() {
+        assertThat(RepositoryKey.of("https://github.com/socketio/socket.io")).isEqualTo("socketio/socket.io");
+        assertThat(RepositoryKey.of("https://github.com/vercel/next.js/tree/canary")).isEqualTo("vercel/next.js");
+        assertThat(RepositoryKey.of("https://github.com/Test/Repo1.git")).isEqualTo("test/repo1");
+        assertThat(RepositoryKey.of("https://github.com/vuejs/vue.js.git")).isEqualTo("vuejs/vue.js");
+        assertThat(RepositoryKey.of("https://github.com/test/repo1?tab=readme")).isEqualTo("test/repo1");
+
+        deploymentRepository.save(new Deployment("Dotted", "Desc", "https://github.com/socketio/socket.io", "main", Deployment.DeploymentStatus.PENDING));
+        deploymentRepository.save(new Deployment("Dotted clone URL", "Desc", "https://github.com/socketio/socket.io.git", "main", Deployment.DeploymentStatus.PENDING));
+        deploymentRepository.save(new Deployment("Prefix", "Desc", "https://github.com/socketio/socket", "main", Deployment.DeploymentStatus.PENDING));
+
+        List<Deployment> found = deploymentRepository.findByRepositoryKey("socketio/socket.io");
+
+        assertThat(found).extracting(Deployment::getName).containsExactlyInAnyOrder("Dotted", "Dotted clone URL");
+    }
+
+    @Test
+    void testFindSummariesPagesByCursor() {
+        for (int i = 0; i < 5; i++) {
+            deploymentRepository.save(new Deployment("Deployment " + i, "Desc", "https://github.com/test/repo", "main", Deployment.DeploymentStatus.COMPLETED));
+        }
+        deploymentRepository.save(new Deployment("Other branch", "Desc", "https://github.com/test/repo", "develop", Deployment.DeploymentStatus.COMPLETED));
+
+        List<DeploymentSummary> firstPage = deploymentRepository.findSummaries(null, null, "test/repo", "main", null, 3);
+        DeploymentCursor cursor = DeploymentCursor.decode(DeploymentCursor.after(firstPage.get(2)).encode());
+        List<DeploymentSummary> secondPage = deploymentRepository.findSummaries(null, null, "test/repo", "main", cursor, 3);
+
+        assertThat(firstPage).hasSize(3);
+        assertThat(secondPage).hasSize(2);
+        assertThat(firstPage).extracting(DeploymentSummary::getId)
+                .doesNotContainAnyElementsOf(secondPage.stream().map(DeploymentSummary::getId).toList());
+        assertThat(secondPage).extracting(DeploymentSummary::getBranch).containsOnly("main");
+    }
+
     private Optional<Deployment> deploymentById(Long id) {
         return deploymentRepository.findById(id);
     }
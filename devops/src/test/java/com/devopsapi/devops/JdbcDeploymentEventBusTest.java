@@ -0,0 +1,101 @@
+package com.devopsapi.devops;
+
+import com.devopsapi.devops.model.Deployment;
+import com.devopsapi.devops.model.DeploymentEvent;
+import com.devopsapi.devops.service.DeploymentEventBus;
+import com.devopsapi.devops.service.JdbcDeploymentEventBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two application contexts on one shared in-memory H2 database, standing in for two nodes
+ * behind a load balancer: an event published on one must reach the other exactly once.
+ */
+public class JdbcDeploymentEventBusTest {
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DevopsApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:events;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "server.port=0",
+                        "devops.cluster.node-id=" + nodeId,
+                        "devops.events.bus=jdbc",
+                        "devops.events.poll-ms=50")
+                .run();
+        contexts.add(context);
+        return context;
+    }
+
+    @Test
+    void testEventReachesEveryNodeOnce() {
+        ConfigurableApplicationContext nodeA = startNode("node-a");
+        ConfigurableApplicationContext nodeB = startNode("node-b");
+        assertThat(nodeA.getBean(DeploymentEventBus.class)).isInstanceOf(JdbcDeploymentEventBus.class);
+
+        List<DeploymentEvent> seenByA = new CopyOnWriteArrayList<>();
+        List<DeploymentEvent> seenByB = new CopyOnWriteArrayList<>();
+        nodeA.getBean(DeploymentEventBus.class).subscribe(seenByA::add);
+        nodeB.getBean(DeploymentEventBus.class).subscribe(seenByB::add);
+
+        nodeA.getBean(DeploymentWebSocketController.class).notifyDeploymentDelete(42L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> seenByB.size() == 1);
+        DeploymentEvent received = seenByB.get(0);
+        assertThat(received.getType()).isEqualTo("DELETE");
+        assertThat(received.getDeploymentId()).isEqualTo(42L);
+        assertThat(received.getOriginNode()).isEqualTo("node-a");
+        assertThat(seenByA).hasSize(1);
+        assertThat(seenByA.get(0).getEventId()).isEqualTo(received.getEventId());
+
+        // Later polls must not deliver the same row again on either node
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(2))
+                .until(() -> seenByA.size() == 1 && seenByB.size() == 1);
+    }
+
+    @Test
+    void testUpdateArrivesAsEquivalentSnapshot() {
+        ConfigurableApplicationContext nodeA = startNode("node-a");
+        ConfigurableApplicationContext nodeB = startNode("node-b");
+
+        List<DeploymentEvent> seenByB = new CopyOnWriteArrayList<>();
+        nodeB.getBean(DeploymentEventBus.class).subscribe(seenByB::add);
+
+        Deployment deployment = new Deployment("Remote", "Desc", "https://github.com/test/repo", "main", Deployment.DeploymentStatus.IN_PROGRESS);
+        deployment.setId(7L);
+        deployment.setWorkflowRunId(123L);
+        deployment.setCreatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        nodeA.getBean(DeploymentWebSocketController.class).notifyDeploymentUpdate(deployment);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> seenByB.size() == 1);
+        DeploymentEvent received = seenByB.get(0);
+        assertThat(received.getType()).isEqualTo("UPDATE");
+        assertThat(received.getDeploymentId()).isEqualTo(7L);
+        assertThat(received.getPayload()).isInstanceOf(Map.class);
+
+        // DELTA diffs compare a node's own updates with relayed ones, so both must decode alike
+        DeploymentUpdateCoalescer coalescer = nodeB.getBean(DeploymentUpdateCoalescer.class);
+        Map<String, Object> remote = coalescer.snapshot(received.getPayload());
+        assertThat(remote).isEqualTo(coalescer.snapshot(deployment));
+        assertThat(remote).containsEntry("status", "IN_PROGRESS").containsEntry("workflowRunId", 123L);
+    }
+}
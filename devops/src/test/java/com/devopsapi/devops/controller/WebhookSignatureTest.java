@@ -0,0 +1,60 @@
+package com.devopsapi.devops.controller;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebhookSignatureTest {
+
+    private static final byte[] PAYLOAD = "{\"action\":\"completed\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void acceptsValidSignature() throws Exception {
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "s3cret"), "s3cret")).isTrue();
+        // Prefix is matched case-insensitively, hex digits in either case
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "s3cret").toUpperCase(), "s3cret")).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedPayloadOrWrongSecret() throws Exception {
+        String signature = sign(PAYLOAD, "s3cret");
+        byte[] tampered = "{\"action\":\"failed\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(WebhookController.isValidSignature(tampered, signature, "s3cret")).isFalse();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, signature, "other")).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedSignatures() throws Exception {
+        String hex = sign(PAYLOAD, "s3cret").substring("sha256=".length());
+
+        assertThat(WebhookController.isValidSignature(PAYLOAD, "sha1=" + hex, "s3cret")).isFalse();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, hex, "s3cret")).isFalse();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, "sha256=" + hex.substring(1), "s3cret")).isFalse();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, "sha256=" + "zz" + hex.substring(2), "s3cret")).isFalse();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, "sha256=", "s3cret")).isFalse();
+    }
+
+    @Test
+    void reusesAndRekeysThePerThreadMac() throws Exception {
+        // Same secret twice: the cached Mac must be reset between uses
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "first"), "first")).isTrue();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "first"), "first")).isTrue();
+
+        // Rotated secret: old signatures stop verifying, new ones verify
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "first"), "second")).isFalse();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "second"), "second")).isTrue();
+        assertThat(WebhookController.isValidSignature(PAYLOAD, sign(PAYLOAD, "first"), "first")).isTrue();
+    }
+
+    private static String sign(byte[] payload, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+}
@@ -0,0 +1,53 @@
+package com.devopsapi.devops.service;
+
+import com.devopsapi.devops.model.Deployment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GitHubRunMatchingTest {
+
+    private final TimeZone originalZone = TimeZone.getDefault();
+
+    @AfterEach
+    void restoreZone() {
+        TimeZone.setDefault(originalZone);
+    }
+
+    @Test
+    void matchesOwnRunWhenServerIsEastOfUtc() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        Deployment deployment = deploymentCreatedNow();
+        Map<String, Object> run = run(1L, Instant.now().plusSeconds(5));
+
+        assertThat(GitHubService.matchRun(deployment, List.of(run), new HashSet<>())).isSameAs(run);
+    }
+
+    @Test
+    void ignoresOlderRunWhenServerIsWestOfUtc() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        Deployment deployment = deploymentCreatedNow();
+        Map<String, Object> olderRun = run(1L, Instant.now().minusSeconds(7200));
+
+        assertThat(GitHubService.matchRun(deployment, List.of(olderRun), new HashSet<>())).isNull();
+    }
+
+    // Mirrors @CreationTimestamp: wall-clock time in the JVM's default zone
+    private static Deployment deploymentCreatedNow() {
+        Deployment deployment = new Deployment("Test", "Run matching", "https://github.com/test/repo", "main", Deployment.DeploymentStatus.IN_PROGRESS);
+        deployment.setCreatedAt(LocalDateTime.now());
+        return deployment;
+    }
+
+    private static Map<String, Object> run(long id, Instant createdAt) {
+        return Map.of("id", id, "head_branch", "main", "created_at", createdAt.toString());
+    }
+}
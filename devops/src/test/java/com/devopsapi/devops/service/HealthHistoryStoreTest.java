@@ -0,0 +1,79 @@
+package com.devopsapi.devops.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HealthHistoryStoreTest {
+
+    @Test
+    void smallLatenciesHaveExactBuckets() {
+        assertThat(HealthHistoryStore.bucketOf(0)).isZero();
+        assertThat(HealthHistoryStore.bucketOf(-5)).isZero();
+        assertThat(HealthHistoryStore.bucketOf(15)).isEqualTo(15);
+        assertThat(HealthHistoryStore.upperBoundOf(15)).isEqualTo(15);
+        // 16 starts the logarithmic range: its bucket is [16, 17]
+        assertThat(HealthHistoryStore.bucketOf(16)).isEqualTo(16);
+        assertThat(HealthHistoryStore.upperBoundOf(16)).isEqualTo(17);
+        assertThat(HealthHistoryStore.bucketOf(17)).isEqualTo(16);
+        assertThat(HealthHistoryStore.bucketOf(18)).isEqualTo(17);
+    }
+
+    @Test
+    void powersOfTwoStartANewBucket() {
+        for (int exponent = 4; exponent <= 30; exponent++) {
+            int power = 1 << exponent;
+            assertThat(HealthHistoryStore.upperBoundOf(HealthHistoryStore.bucketOf(power - 1))).isEqualTo(power - 1);
+            assertThat(HealthHistoryStore.bucketOf(power)).isEqualTo(HealthHistoryStore.bucketOf(power - 1) + 1);
+        }
+    }
+
+    @Test
+    void maxValueFallsInTheLastBucket() {
+        int last = HealthHistoryStore.bucketOf(Integer.MAX_VALUE);
+        assertThat(HealthHistoryStore.upperBoundOf(last)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(HealthHistoryStore.bucketOf(1 << 30)).isLessThan(last);
+    }
+
+    @Test
+    void bucketsContainTheirValuesWithinTwelveAndAHalfPercent() {
+        for (long value = 0; value <= Integer.MAX_VALUE; value = value < 4096 ? value + 1 : value * 17 / 16) {
+            int latency = (int) value;
+            int bucket = HealthHistoryStore.bucketOf(latency);
+            int upper = HealthHistoryStore.upperBoundOf(bucket);
+            int lower = bucket == 0 ? 0 : HealthHistoryStore.upperBoundOf(bucket - 1) + 1;
+            assertThat(latency).isBetween(lower, upper);
+            if (latency >= 16) {
+                assertThat((double) upper - lower + 1).isLessThanOrEqualTo(lower * 0.125);
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void percentilesForgetOverwrittenSamples() {
+        HealthHistoryStore store = new HealthHistoryStore(4);
+        for (int i = 0; i < 4; i++) {
+            store.record(1L, i, 1000, 200);
+        }
+        assertThat(store.snapshot(1L, 10)).containsEntry("p50", 1023).containsEntry("p99", 1023);
+
+        // Two fast samples replace the two oldest slow ones
+        store.record(1L, 4, 5, 200);
+        store.record(1L, 5, 5, 200);
+        Map<String, Object> half = store.snapshot(1L, 10);
+        assertThat(half).containsEntry("count", 4).containsEntry("p50", 5).containsEntry("p95", 1023);
+
+        // After a full wrap, nothing of the slow samples is left in the histogram
+        store.record(1L, 6, 5, 503);
+        store.record(1L, 7, 5, 503);
+        Map<String, Object> wrapped = store.snapshot(1L, 2);
+        assertThat(wrapped).containsEntry("count", 4).containsEntry("p50", 5).containsEntry("p99", 5);
+        assertThat((List<HealthHistoryStore.Sample>) wrapped.get("samples"))
+                .extracting(HealthHistoryStore.Sample::statusCode)
+                .containsExactly(503, 503);
+    }
+}
@@ -0,0 +1,76 @@
+package com.devopsapi.devops.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebhookPayloadExtractionTest {
+
+    // Trimmed from a real workflow_run delivery: the run carries its own repository and
+    // head_commit objects whose fields must not leak into the top-level values
+    private static final String WORKFLOW_RUN_PAYLOAD = """
+            {
+              "action": "requested",
+              "workflow_run": {
+                "id": 9876543210,
+                "name": "Deploy",
+                "head_branch": "main",
+                "status": "queued",
+                "conclusion": null,
+                "pull_requests": [{"id": 1, "number": 7}],
+                "head_commit": {"id": "abc123", "message": "status: completed", "author": {"name": "someone"}},
+                "repository": {"id": 42, "full_name": "other/nested", "html_url": "https://github.com/other/nested"},
+                "run_attempt": 1
+              },
+              "workflow": {"id": 5, "name": "Deploy", "status": "active"},
+              "repository": {
+                "id": 1,
+                "full_name": "Acme/Socket.io",
+                "html_url": "https://github.com/Acme/Socket.io",
+                "owner": {"login": "Acme", "id": 99}
+              },
+              "sender": {"login": "someone"}
+            }
+            """;
+
+    @Test
+    void extractsTopLevelFieldsFromWorkflowRunPayload() throws Exception {
+        WebhookIngestionService.RunUpdate update = WebhookIngestionService.extract(bytes(WORKFLOW_RUN_PAYLOAD), 1000L);
+
+        assertThat(update).isNotNull();
+        assertThat(update.repositoryKey()).isEqualTo("acme/socket.io");
+        assertThat(update.runId()).isEqualTo(9876543210L);
+        assertThat(update.status()).isEqualTo("queued");
+        assertThat(update.conclusion()).isNull();
+        assertThat(update.receivedAt()).isEqualTo(1000L);
+    }
+
+    @Test
+    void fallsBackToHtmlUrlWithoutFullName() throws Exception {
+        String payload = """
+                {"repository": {"html_url": "https://github.com/Acme/Api"},
+                 "workflow_run": {"id": 12, "status": "completed", "conclusion": "success"}}
+                """;
+
+        WebhookIngestionService.RunUpdate update = WebhookIngestionService.extract(bytes(payload), 0L);
+
+        assertThat(update.repositoryKey()).isEqualTo("acme/api");
+        assertThat(update.status()).isEqualTo("completed");
+        assertThat(update.conclusion()).isEqualTo("success");
+    }
+
+    @Test
+    void ignoresPayloadWithoutRepository() throws Exception {
+        String payload = """
+                {"workflow_run": {"id": 12, "status": "completed", "repository": {"full_name": "other/nested"}}}
+                """;
+
+        assertThat(WebhookIngestionService.extract(bytes(payload), 0L)).isNull();
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}